@@ -0,0 +1,64 @@
+package sudoku.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sudoku.Board;
+import sudoku.batch.BatchValidator;
+import sudoku.solver.BitmaskSolver;
+
+// Verifying a batch of solved corpus boards: one Board.verifySolution call per board
+// against BatchValidator, vectorized since this benchmark's fork adds jdk.incubator.vector
+// (the other benchmarks run without it), or its scalar fallback with
+// -Dsudoku.scalarValidator=true. Scores are per board.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsPrepend = {"--add-modules", "jdk.incubator.vector"})
+public class BatchValidatorBenchmark {
+    private static final int BOARDS = 4096;
+
+    private int[][] solutions;
+    private BatchValidator batch;
+
+    @Setup
+    public void setUp() {
+        int[][] puzzles = Puzzles.corpus(BOARDS, 11);
+        BitmaskSolver solver = new BitmaskSolver();
+        solutions = new int[BOARDS][];
+        batch = new BatchValidator(BOARDS);
+        for (int i = 0; i < BOARDS; i++) {
+            solutions[i] = solver.solve(puzzles[i]).getSolution();
+            batch.add(solutions[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOARDS)
+    public int oneByOne() {
+        int valid = 0;
+        for (int[] solution : solutions) {
+            if (Board.verifySolution(solution)) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOARDS)
+    public boolean[] batched() {
+        return batch.verifySolutions();
+    }
+}
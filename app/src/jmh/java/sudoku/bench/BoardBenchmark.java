@@ -0,0 +1,122 @@
+package sudoku.bench;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sudoku.Board;
+import sudoku.MoveBatchResult;
+import sudoku.MoveJournal;
+import sudoku.solver.BitmaskSolver;
+
+// Hot paths of Board on each of the hand-made puzzles.
+// Per-cell queries walk the 81 cells round-robin so every call sees a different cell.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    @Param({"easy", "medium", "hard", "extreme"})
+    public String puzzle;
+
+    private Board board;
+    private int[] cells;
+    private byte[] text;
+    private int[] solution;
+    private int[] moves;
+    private int cell;
+
+    @Setup
+    public void setUp() {
+        cells = Puzzles.load(puzzle);
+        board = Board.fromArray(cells);
+        text = board.toString().getBytes(StandardCharsets.US_ASCII);
+        solution = new BitmaskSolver().solve(cells).getSolution();
+        moves = new int[81];
+        int count = 0;
+        for (int i = 0; i < 81; i++) {
+            if (cells[i] == 0) {
+                moves[count++] = MoveJournal.pack(i / 9, i % 9, 0, solution[i]);
+            }
+        }
+        moves = Arrays.copyOf(moves, count);
+    }
+
+    private int nextCell() {
+        cell = cell == 80 ? 0 : cell + 1;
+        return cell;
+    }
+
+    @Benchmark
+    public boolean isLegal() {
+        int i = nextCell();
+        return board.isLegal(i / 9, i % 9, i % 9 + 1);
+    }
+
+    @Benchmark
+    public Set<Integer> getPossibleValues() {
+        int i = nextCell();
+        return board.getPossibleValues(i / 9, i % 9);
+    }
+
+    @Benchmark
+    public int getCandidateMask() {
+        int i = nextCell();
+        return board.getCandidateMask(i / 9, i % 9);
+    }
+
+    @Benchmark
+    public List<int[]> getCellsForHints() {
+        return board.getCellsForHints();
+    }
+
+    @Benchmark
+    public Board loadBoard() {
+        return Board.loadBoard(new ByteArrayInputStream(text), true);
+    }
+
+    @Benchmark
+    public boolean isValidBoard() {
+        return Board.isValidBoard(cells);
+    }
+
+    @Benchmark
+    public String boardToString() {
+        return board.toString();
+    }
+
+    @Benchmark
+    public boolean verifySolution() {
+        return Board.verifySolution(cells, solution);
+    }
+
+    // Replays a whole game in one call; compare with replaySetCell.
+    @Benchmark
+    public MoveBatchResult replayApplyMoves() {
+        return Board.fromArray(cells).applyMoves(moves);
+    }
+
+    @Benchmark
+    public Board replaySetCell() {
+        Board game = Board.fromArray(cells);
+        for (int move : moves) {
+            game.setCell(MoveJournal.row(move), MoveJournal.col(move), MoveJournal.newValue(move), false);
+        }
+        return game;
+    }
+}
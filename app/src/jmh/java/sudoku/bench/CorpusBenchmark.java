@@ -0,0 +1,71 @@
+package sudoku.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import sudoku.Board;
+import sudoku.solver.BitmaskSolver;
+import sudoku.solver.DancingLinksSolver;
+import sudoku.solver.Solver;
+
+// Per-puzzle throughput over a generated corpus, so results are not tuned to a single grid.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CorpusBenchmark {
+    private static final int SIZE = 1024;
+
+    private final Solver bitmask = new BitmaskSolver();
+    private final Solver dlx = new DancingLinksSolver();
+    private int[][] corpus;
+
+    @Setup
+    public void setUp() {
+        corpus = Puzzles.corpus(SIZE, 42);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void validate(Blackhole blackhole) {
+        for (int[] puzzle : corpus) {
+            blackhole.consume(Board.isValidBoard(puzzle));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void hints(Blackhole blackhole) {
+        for (int[] puzzle : corpus) {
+            blackhole.consume(Board.fromArray(puzzle).getCellsForHints());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void solveBitmask(Blackhole blackhole) {
+        for (int[] puzzle : corpus) {
+            blackhole.consume(bitmask.solve(puzzle));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void solveDancingLinks(Blackhole blackhole) {
+        for (int[] puzzle : corpus) {
+            blackhole.consume(dlx.solve(puzzle));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package sudoku.bench;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Random;
+import sudoku.io.PuzzleReader;
+
+// Benchmark inputs: the hand-made files in puzzles/ and corpora derived from them.
+final class Puzzles {
+    static final String[] NAMES = {"easy", "medium", "hard", "extreme"};
+
+    private Puzzles() {
+    }
+
+    // Loads puzzles/boardEasy.txt ... boardExtreme.txt by short name.
+    static int[] load(String name) {
+        String file = "board" + Character.toUpperCase(name.charAt(0)) + name.substring(1) + ".txt";
+        Path path = Path.of(System.getProperty("sudoku.puzzles", "../puzzles"), file);
+        try (PuzzleReader reader = PuzzleReader.open(path)) {
+            return reader.next();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Builds a reproducible corpus of distinct puzzles by applying random validity-preserving
+    // transformations (digit relabeling, row swaps within a band, transposition) to the files.
+    static int[][] corpus(int size, long seed) {
+        Random random = new Random(seed);
+        int[][] sources = new int[NAMES.length][];
+        for (int i = 0; i < NAMES.length; i++) {
+            sources[i] = load(NAMES[i]);
+        }
+        int[][] corpus = new int[size][];
+        for (int n = 0; n < size; n++) {
+            int[] source = sources[n % sources.length];
+            int[] digits = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+            for (int i = 9; i > 1; i--) {
+                int j = 1 + random.nextInt(i);
+                int tmp = digits[i];
+                digits[i] = digits[j];
+                digits[j] = tmp;
+            }
+            int[] rows = {0, 1, 2, 3, 4, 5, 6, 7, 8};
+            for (int band = 0; band < 9; band += 3) {
+                for (int i = 2; i > 0; i--) {
+                    int j = random.nextInt(i + 1);
+                    int tmp = rows[band + i];
+                    rows[band + i] = rows[band + j];
+                    rows[band + j] = tmp;
+                }
+            }
+            boolean transpose = random.nextBoolean();
+            int[] puzzle = new int[81];
+            for (int r = 0; r < 9; r++) {
+                for (int c = 0; c < 9; c++) {
+                    int from = transpose ? c * 9 + rows[r] : rows[r] * 9 + c;
+                    puzzle[r * 9 + c] = digits[source[from]];
+                }
+            }
+            corpus[n] = puzzle;
+        }
+        return corpus;
+    }
+}
@@ -0,0 +1,57 @@
+package sudoku.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sudoku.solver.BitmaskSolver;
+import sudoku.solver.SolutionEnumerator;
+
+// Counting the solutions of the hard puzzle with some givens removed: the sequential
+// search against the fork-join one. removed = 0 is the uniqueness check on a proper puzzle.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolutionCountBenchmark {
+    @Param({"0", "8", "12"})
+    public int removed;
+
+    @Param({"2", "1000000"})
+    public int limit;
+
+    private final BitmaskSolver solver = new BitmaskSolver();
+    private final SolutionEnumerator enumerator = new SolutionEnumerator();
+    private int[] cells;
+
+    @Setup
+    public void setUp() {
+        cells = Puzzles.load("hard");
+        for (int i = 0, left = removed; i < cells.length && left > 0; i++) {
+            if (cells[i] != 0) {
+                cells[i] = 0;
+                left--;
+            }
+        }
+    }
+
+    @Benchmark
+    public int sequential() {
+        return solver.countSolutions(cells, limit);
+    }
+
+    @Benchmark
+    public long parallel() {
+        return enumerator.countSolutions(cells, limit);
+    }
+}
@@ -0,0 +1,47 @@
+package sudoku.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sudoku.solver.BitmaskSolver;
+import sudoku.solver.DancingLinksSolver;
+import sudoku.solver.SolveResult;
+import sudoku.solver.Solver;
+
+// Time to solve each hand-made puzzle with each engine.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark {
+    @Param({"bitmask", "dlx"})
+    public String engine;
+
+    @Param({"easy", "medium", "hard", "extreme"})
+    public String puzzle;
+
+    private Solver solver;
+    private int[] cells;
+
+    @Setup
+    public void setUp() {
+        solver = engine.equals("dlx") ? new DancingLinksSolver() : new BitmaskSolver();
+        cells = Puzzles.load(puzzle);
+    }
+
+    @Benchmark
+    public SolveResult solve() {
+        return solver.solve(cells);
+    }
+}
@@ -1,23 +1,87 @@
-package sudoku; 
+package sudoku;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Scanner;
 import java.util.Set;
-import java.util.Stack; 
+import java.util.function.IntConsumer;
+import sudoku.metrics.Counter;
+import sudoku.metrics.Metrics;
+import sudoku.metrics.SudokuEvents;
+import sudoku.metrics.Timer;
 
 public class Board {
+    // Zobrist keys per box size: one random 64-bit value per (cell, value), fixed by a
+    // constant seed so hashes are stable across runs. Value 0 of each cell keeps key 0.
+    private static final long[][] ZOBRIST = new long[Geometry.MAX_BOX_SIZE + 1][];
+
+    static {
+        long seed = 0x5D0C0DE5EEDL;
+        for (int n = Geometry.MIN_BOX_SIZE; n <= Geometry.MAX_BOX_SIZE; n++) {
+            int stride = n * n + 1;
+            long[] keys = new long[n * n * n * n * stride];
+            for (int i = 0; i < keys.length; i++) {
+                seed += 0x9E3779B97F4A7C15L;
+                long z = seed;
+                z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+                z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+                keys[i] = i % stride == 0 ? 0 : z ^ (z >>> 31);
+            }
+            ZOBRIST[n] = keys;
+        }
+    }
+
+    private final Geometry geometry;
+    private final int size; // Side of the grid and largest value: 9 for a classic board.
     private int[][] board; // The Sudoku board represented as a 2D array.
-    private Stack<Move> undoStack = new Stack<>();
-    private List<Move> allMoves = new ArrayList<>();
+    // Per-unit bookkeeping; units 0..size-1 are rows, then columns, then boxes.
+    // unitMask has bit (v - 1) set when value v is used in the unit; unitCounts[unit * (size + 1) + v]
+    // counts its copies, so duplicates placed while initializing are tracked too.
+    private final int[] unitMask;
+    private final int[] unitCounts;
+    private final int[] unitFilled;
+    private final int[] unitDuplicates;
+    private final boolean[] completedUnits; // True while the unit holds 1..size exactly once.
+    private int filledCells;
+    private int duplicates;
+    private final List<BoardListener> listeners = new ArrayList<>();
+    private long version; // Bumped on every cell change so callers can cache per board state.
+    private long zobrist; // XOR of the Zobrist keys of every filled cell.
+    // One bit per row-major cell changed since the last drainDirtyCells, so views can
+    // repaint just those cells.
+    private final long[] dirtyCells;
+    private BoardSnapshot snapshot; // Last snapshot taken; reused while the version is unchanged.
+    private long snapshotVersion;
+    private final MoveJournal undoJournal = new MoveJournal(); // Moves that can be undone and redone.
+    private final MoveJournal history = new MoveJournal(); // Every accepted move since loading.
     private boolean initializing;
 
+    // An empty 9x9 board.
     public Board() {
-        board = new int[9][9]; // Initialize an empty board (all values set to 0 by default).
+        this(Geometry.STANDARD);
+    }
+
+    // An empty board with boxSize x boxSize boxes: 2 for 4x4 up to 5 for 25x25.
+    public Board(int boxSize) {
+        this(Geometry.of(boxSize));
     }
 
-    public static class Move {  
+    public Board(Geometry geometry) {
+        this.geometry = geometry;
+        this.size = geometry.getSize();
+        board = new int[size][size]; // Initialize an empty board (all values set to 0 by default).
+        int units = geometry.getUnitCount();
+        unitMask = new int[units];
+        unitCounts = new int[units * (size + 1)];
+        unitFilled = new int[units];
+        unitDuplicates = new int[units];
+        completedUnits = new boolean[units];
+        dirtyCells = new long[(geometry.getCellCount() + 63) >>> 6];
+    }
+
+    public static class Move {
     final int row;
     final int col;
     final int oldValue;
@@ -30,98 +94,398 @@ public class Board {
         this.newValue = newValue;
     }
 
+    static Move of(int packed) {
+        return new Move(MoveJournal.row(packed), MoveJournal.col(packed),
+                MoveJournal.oldValue(packed), MoveJournal.newValue(packed));
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public int getCol() {
+        return col;
+    }
+
+    public int getOldValue() {
+        return oldValue;
+    }
+
+    public int getNewValue() {
+        return newValue;
+    }
+
 }
 
+    public Geometry getGeometry() {
+        return geometry;
+    }
+
+    // Width of the grid, which is also the largest value.
+    public int getSize() {
+        return size;
+    }
+
     public void startInitialization() {
         initializing = true;
-        allMoves.clear();
-        System.out.println("Initialization started and moves cleared.");
-
+        history.clear();
     }
 
     public void endInitialization() {
         initializing = false;
-        System.out.println("end initialization");
     }
 
-    // Sets a cell to a specific value after validating it.
+    // Sets a cell to a specific value after validating it. Value 0 clears the cell; a
+    // clear is always legal and is journaled like any other move.
     public boolean setCell(int row, int col, int value, boolean initializing) {
         if (initializing) {
-            board[row][col] = value;
+            place(row, col, value);
             return true;  // Directly set the value without validation or recording the move
         }
-    
+
+        SudokuEvents.SetCell event = new SudokuEvents.SetCell();
+        event.begin();
+        boolean accepted = enterMove(row, col, value);
+        if (event.shouldCommit()) {
+            event.row = row;
+            event.col = col;
+            event.value = value;
+            event.accepted = accepted;
+            event.commit();
+        }
+        return accepted;
+    }
+
+    private boolean enterMove(int row, int col, int value) {
         int oldValue = board[row][col];
-        if (value < 1 || value > 9) {
-            System.out.println("Invalid move: Value must be between 1 and 9.");
+        if (value < 0 || value > size) {
+            Metrics.count(Counter.MOVES_REJECTED);
             return false;
         }
-    
-        if (!isLegal(row, col, value)) {
-            System.out.println("Invalid move: Setting cell " + row + ", " + col + " to " + value + " is not allowed.");
+
+        if (value != 0 && !isLegal(row, col, value)) {
+            Metrics.count(Counter.MOVES_REJECTED);
             return false;
         }
-    
+
         if (oldValue != value) {
-            Move move = new Move(row, col, oldValue, value);
-            undoStack.push(move);
-            allMoves.add(move);
-            System.out.println("Correct move: Setting cell " + row + ", " + col + " to " + value);
+            int move = MoveJournal.pack(row, col, oldValue, value);
+            undoJournal.push(move);
+            history.push(move);
+            for (BoardListener listener : listeners) {
+                listener.moveMade(move, false);
+            }
         }
-        
-        board[row][col] = value;
+
+        place(row, col, value);
+        Metrics.count(Counter.MOVES_ACCEPTED);
         return true;
     }
-    
-    
+
+    // Applies a sequence of moves in one pass, without logging, stopping at the first
+    // illegal one. Each move is packed as by MoveJournal.pack; its old-value byte is
+    // ignored, and a new value of 0 clears the cell. Applied moves are recorded in the
+    // journal like setCell moves.
+    public MoveBatchResult applyMoves(int[] moves) {
+        for (int i = 0; i < moves.length; i++) {
+            int move = moves[i];
+            int row = MoveJournal.row(move);
+            int col = MoveJournal.col(move);
+            int value = MoveJournal.newValue(move);
+            if (row >= size || col >= size || value > size || (value != 0 && !isLegal(row, col, value))) {
+                Metrics.count(Counter.MOVES_ACCEPTED, i);
+                Metrics.count(Counter.MOVES_REJECTED);
+                return new MoveBatchResult(MoveBatchResult.Verdict.REJECTED, i, move);
+            }
+            int recorded = MoveJournal.pack(row, col, board[row][col], value);
+            undoJournal.push(recorded);
+            history.push(recorded);
+            for (BoardListener listener : listeners) {
+                listener.moveMade(recorded, false);
+            }
+            place(row, col, value);
+        }
+        Metrics.count(Counter.MOVES_ACCEPTED, moves.length);
+        MoveBatchResult.Verdict verdict = isSolved() ? MoveBatchResult.Verdict.SOLVED : MoveBatchResult.Verdict.INCOMPLETE;
+        return new MoveBatchResult(verdict, moves.length, MoveJournal.NONE);
+    }
+
+    // Writes a value into the grid and updates the unit counts, masks and completion state.
+    private void place(int row, int col, int value) {
+        int oldValue = board[row][col];
+        if (oldValue == value) {
+            return;
+        }
+        int box = geometry.box(row, col);
+        boolean wasSolved = isSolved();
+        if (oldValue > 0) {
+            removeFromUnit(row, oldValue);
+            removeFromUnit(size + col, oldValue);
+            removeFromUnit(2 * size + box, oldValue);
+            filledCells--;
+        }
+        if (value > 0) {
+            addToUnit(row, value);
+            addToUnit(size + col, value);
+            addToUnit(2 * size + box, value);
+            filledCells++;
+        }
+        board[row][col] = value;
+        int index = row * size + col;
+        int key = index * (size + 1);
+        long[] keys = ZOBRIST[geometry.getBoxSize()];
+        zobrist ^= keys[key + oldValue] ^ keys[key + value];
+        version++;
+        dirtyCells[index >>> 6] |= 1L << index;
+        for (BoardListener listener : listeners) {
+            listener.cellChanged(row, col, oldValue, value);
+        }
+        updateCompletion(row);
+        updateCompletion(size + col);
+        updateCompletion(2 * size + box);
+        if (!wasSolved && isSolved()) {
+            for (BoardListener listener : listeners) {
+                listener.boardSolved();
+            }
+        }
+    }
+
+    private void addToUnit(int unit, int value) {
+        unitFilled[unit]++;
+        if (++unitCounts[unit * (size + 1) + value] == 1) {
+            unitMask[unit] |= 1 << (value - 1);
+        } else {
+            unitDuplicates[unit]++;
+            duplicates++;
+        }
+    }
+
+    private void removeFromUnit(int unit, int value) {
+        unitFilled[unit]--;
+        if (--unitCounts[unit * (size + 1) + value] == 0) {
+            unitMask[unit] &= ~(1 << (value - 1));
+        } else {
+            unitDuplicates[unit]--;
+            duplicates--;
+        }
+    }
+
+    private void updateCompletion(int unit) {
+        if (unitFilled[unit] == size && unitDuplicates[unit] == 0) {
+            if (!completedUnits[unit]) {
+                completedUnits[unit] = true;
+                for (BoardListener listener : listeners) {
+                    listener.unitCompleted(BoardListener.Unit.values()[unit / size], unit % size);
+                }
+            }
+        } else {
+            completedUnits[unit] = false;
+        }
+    }
+
+    public void addBoardListener(BoardListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeBoardListener(BoardListener listener) {
+        listeners.remove(listener);
+    }
+
+    // True when every cell is filled and no row, column or box has a duplicate.
+    public boolean isSolved() {
+        return filledCells == geometry.getCellCount() && duplicates == 0;
+    }
+
+    // Cells whose value appears more than once in one of their units, as {row, col} pairs.
+    // Only boards filled while initializing can have conflicts; setCell never creates one.
+    public List<int[]> conflictingCells() {
+        List<int[]> cells = new ArrayList<>();
+        if (duplicates == 0) {
+            return cells;
+        }
+        int stride = size + 1;
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int value = board[row][col];
+                if (value > 0 && (unitCounts[row * stride + value] > 1
+                        || unitCounts[(size + col) * stride + value] > 1
+                        || unitCounts[(2 * size + geometry.box(row, col)) * stride + value] > 1)) {
+                    cells.add(new int[]{row, col});
+                }
+            }
+        }
+        return cells;
+    }
+
+    // True if some cell has changed since the last drainDirtyCells.
+    public boolean hasDirtyCells() {
+        for (long word : dirtyCells) {
+            if (word != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Passes the row-major index of every cell changed since the last call, in order,
+    // and clears the set. A cell changed and changed back still counts as dirty.
+    public void drainDirtyCells(IntConsumer action) {
+        for (int w = 0; w < dirtyCells.length; w++) {
+            long word = dirtyCells[w];
+            dirtyCells[w] = 0;
+            for (; word != 0; word &= word - 1) {
+                action.accept(w << 6 | Long.numberOfTrailingZeros(word));
+            }
+        }
+    }
+
+    // Drops one cell from the dirty set, for a view that already shows its new value
+    // (the text field the player typed into).
+    public void clearDirty(int row, int col) {
+        int index = row * size + col;
+        dirtyCells[index >>> 6] &= ~(1L << index);
+    }
+
+    // Changes whenever any cell changes; equal versions of the same board mean equal contents.
+    public long getVersion() {
+        return version;
+    }
+
+    // 64-bit hash of the cell contents, kept up to date on every change. Boards with the
+    // same cells have the same hash, whatever order the moves were made in.
+    public long getZobristHash() {
+        return zobrist;
+    }
+
+    // Key of one (cell, value) pair, so snapshots can update a hash incrementally.
+    static long zobristKey(Geometry geometry, int cell, int value) {
+        return ZOBRIST[geometry.getBoxSize()][cell * (geometry.getSize() + 1) + value];
+    }
+
+    // The Zobrist hash a board with these row-major cells would have.
+    public static long zobristHash(int[] cells) {
+        Geometry geometry = Geometry.forCellCount(cells.length);
+        long[] keys = ZOBRIST[geometry.getBoxSize()];
+        int stride = geometry.getSize() + 1;
+        long hash = 0;
+        for (int i = 0; i < cells.length; i++) {
+            hash ^= keys[i * stride + cells[i]];
+        }
+        return hash;
+    }
+
+
     public Move undoLastMove() {
-        if (!undoStack.isEmpty()) {
-            Move lastMove = undoStack.pop();
-            // Set the cell to its old value
-            board[lastMove.row][lastMove.col] = lastMove.oldValue;
-            return lastMove;
+        int move = undoJournal.undo();
+        if (move == MoveJournal.NONE) {
+            return null;
         }
-        return null;
+        Metrics.count(Counter.UNDOS);
+        for (BoardListener listener : listeners) {
+            listener.moveUndone(move);
+        }
+        // Set the cell to its old value
+        place(MoveJournal.row(move), MoveJournal.col(move), MoveJournal.oldValue(move));
+        return Move.of(move);
     }
-    
 
+    // Re-applies the most recently undone move; returns null if there is nothing to redo
+    // or the move no longer fits the board.
+    public Move redoLastMove() {
+        int move = undoJournal.redo();
+        if (move == MoveJournal.NONE) {
+            return null;
+        }
+        int row = MoveJournal.row(move);
+        int col = MoveJournal.col(move);
+        int newValue = MoveJournal.newValue(move);
+        if (board[row][col] != MoveJournal.oldValue(move) || (newValue != 0 && !isLegal(row, col, newValue))) {
+            undoJournal.undo();
+            return null;
+        }
+        history.push(move);
+        for (BoardListener listener : listeners) {
+            listener.moveMade(move, true);
+        }
+        place(row, col, newValue);
+        Metrics.count(Counter.REDOS);
+        return Move.of(move);
+    }
+
+    // All moves entered since the board was loaded, oldest first.
     public List<Move> getAllMoves() {
-        return allMoves;
+        List<Move> moves = new ArrayList<>(history.size());
+        for (int i = 0; i < history.size(); i++) {
+            moves.add(Move.of(history.get(i)));
+        }
+        return moves;
+    }
+
+    // The packed move history, for replaying a game without creating Move objects.
+    public MoveJournal getHistory() {
+        return history;
+    }
+
+    // The moves undoLastMove and redoLastMove step through. Read it, don't change it.
+    public MoveJournal getUndoJournal() {
+        return undoJournal;
     }
 
-    // Loads a Sudoku board from an input stream and validates it.
+    // Loads a Sudoku board from an input stream and validates it. The stream holds the
+    // cells as whitespace-separated numbers, 0 for empty; their count (16, 81, 256 or
+    // 625) gives the board size.
     public static Board loadBoard(InputStream in,boolean initializing) throws IllegalArgumentException {
-        Board board = new Board();
-        board.startInitialization();
+        long start = Metrics.startTimer();
+        SudokuEvents.Load event = new SudokuEvents.Load();
+        event.begin();
+        try {
+            Board board = parseBoard(in, initializing);
+            event.cells = board.geometry.getCellCount();
+            event.valid = true;
+            Metrics.stopTimer(Timer.LOAD, start);
+            Metrics.count(Counter.BOARDS_LOADED);
+            return board;
+        } finally {
+            event.commit();
+        }
+    }
+
+    private static Board parseBoard(InputStream in, boolean initializing) {
         Scanner scanner = new Scanner(in);
-        int[][] tempBoard = new int[9][9]; // Temporary storage to read the board.
+        int[] cells = new int[Geometry.STANDARD.getCellCount()]; // Temporary storage to read the board.
+        int count = 0;
 
         // Read in the board data
         try {
-        for (int row = 0; row < 9; row++) {
-            for (int col = 0; col < 9; col++) {
-                int value = scanner.nextInt();
-                if (value < 0 || value > 9) {
-                    scanner.close();
-                    throw new IllegalArgumentException("Board contains values outside acceptable range (0-9).");
+            while (scanner.hasNextInt()) {
+                if (count == cells.length) {
+                    cells = Arrays.copyOf(cells, cells.length * 8);
                 }
-                tempBoard[row][col] = value;
+                cells[count++] = scanner.nextInt();
             }
-        }
         } finally {
             scanner.close();
         }
-       
+        Geometry geometry = Geometry.forCellCount(count);
+        int size = geometry.getSize();
+        cells = Arrays.copyOf(cells, count);
+        for (int value : cells) {
+            if (value < 0 || value > size) {
+                throw new IllegalArgumentException("Board contains values outside acceptable range (0-" + size + ").");
+            }
+        }
 
         // Validate the board data to ensure it follows Sudoku rules
-        if (!isValidBoard(tempBoard)) {
+        if (!isValidBoard(cells)) {
             throw new IllegalArgumentException("Invalid Sudoku board.");
         }
 
         // Copy valid board to the Board object
-        for (int row = 0; row < 9; row++) {
-            for (int col = 0; col < 9; col++) {
-                board.setCell(row, col, tempBoard[row][col],initializing);
+        Board board = new Board(geometry);
+        board.startInitialization();
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                board.setCell(row, col, cells[row * size + col],initializing);
             }
         }
 
@@ -129,72 +493,118 @@ public class Board {
         return board;
         }
 
-    // Validates the board to ensure no duplicates in rows, columns, and 3x3 subgrids
-    private static boolean isValidBoard(int[][] tempBoard) {
-        Set<Integer> seen; // Set to track seen numbers for validation.
-
-        // Check each row and column for duplicates
-        for (int i = 0; i < 9; i++) {
-            seen = new HashSet<>();
-            for (int j = 0; j < 9; j++) {
-                int cell = tempBoard[i][j];
-                if (cell != 0 && !seen.add(cell)) {
-                    return false; // Found a duplicate in a row.
-                }
+    // Builds a board from row-major cells (0 for empty), validating it like loadBoard.
+    // The number of cells (16, 81, 256 or 625) gives the board size.
+    public static Board fromArray(int[] cells) throws IllegalArgumentException {
+        Geometry geometry = Geometry.forCellCount(cells.length);
+        int size = geometry.getSize();
+        for (int value : cells) {
+            if (value < 0 || value > size) {
+                throw new IllegalArgumentException("Board contains values outside acceptable range (0-" + size + ").");
             }
+        }
+        if (!isValidBoard(cells)) {
+            throw new IllegalArgumentException("Invalid Sudoku board.");
+        }
+        Board board = new Board(geometry);
+        for (int i = 0; i < cells.length; i++) {
+            board.place(i / size, i % size, cells[i]);
+        }
+        return board;
+    }
 
-            seen = new HashSet<>();
-            for (int j = 0; j < 9; j++) {
-                int cell = tempBoard[j][i];
-                if (cell != 0 && !seen.add(cell)) {
-                    return false; // Found a duplicate in a column.
-                }
+    // Checks row-major cells for duplicates in rows, columns and boxes using bitmasks.
+    // False as well when the cell count is not a supported size or a value is out of range.
+    public static boolean isValidBoard(int[] cells) {
+        Geometry geometry = Geometry.forCellCountOrNull(cells.length);
+        if (geometry == null) {
+            return false;
+        }
+        int size = geometry.getSize();
+        int[] rows = new int[size];
+        int[] cols = new int[size];
+        int[] boxes = new int[size];
+        for (int i = 0; i < cells.length; i++) {
+            int value = cells[i];
+            if (value == 0) {
+                continue;
+            }
+            if (value < 0 || value > size) {
+                return false;
+            }
+            int row = geometry.row(i);
+            int col = geometry.col(i);
+            int box = geometry.box(i);
+            int bit = 1 << (value - 1);
+            if (((rows[row] | cols[col] | boxes[box]) & bit) != 0) {
+                return false;
             }
+            rows[row] |= bit;
+            cols[col] |= bit;
+            boxes[box] |= bit;
         }
+        return true;
+    }
 
-        // Check 3x3 subgrids for duplicates
-        for (int block = 0; block < 9; block++) {
-            seen = new HashSet<>();
-            int startRow = block / 3 * 3;
-            int startCol = block % 3 * 3;
-            for (int row = startRow; row < startRow + 3; row++) {
-                for (int col = startCol; col < startCol + 3; col++) {
-                    int cell = tempBoard[row][col];
-                    if (cell != 0 && !seen.add(cell)) {
-                        return false; // Found a duplicate in a 3x3 subgrid.
-                    }
-                }
+    // Checks that row-major cells form a complete, valid solution. Each row, column
+    // and box must OR to all the value bits; since a unit has exactly size cells, that
+    // also rules out duplicates. Range checks are folded into one sign test so the loop
+    // has no early exits.
+    public static boolean verifySolution(int[] cells) {
+        Geometry geometry = Geometry.forCellCountOrNull(cells.length);
+        if (geometry == null) {
+            return false;
+        }
+        int size = geometry.getSize();
+        int boxSize = geometry.getBoxSize();
+        int[] units = new int[geometry.getUnitCount()];
+        int outOfRange = 0;
+        for (int row = 0, i = 0; row < size; row++) {
+            int boxBase = 2 * size + row / boxSize * boxSize;
+            for (int col = 0; col < size; col++, i++) {
+                int digit = cells[i] - 1;
+                outOfRange |= digit | (size - 1 - digit); // negative unless 0 <= digit < size
+                int bit = 1 << digit;
+                units[row] |= bit;
+                units[size + col] |= bit;
+                units[boxBase + col / boxSize] |= bit;
             }
         }
+        int all = geometry.getAllValues();
+        int common = all;
+        for (int mask : units) {
+            common &= mask;
+        }
+        return outOfRange >= 0 && common == all;
+    }
 
-        return true; // All checks passed, the board is valid.
+    // Checks that a solution is valid and keeps every given of the puzzle.
+    public static boolean verifySolution(int[] puzzle, int[] solution) {
+        if (puzzle.length != solution.length || !verifySolution(solution)) {
+            return false;
+        }
+        int mismatches = 0;
+        for (int i = 0; i < puzzle.length; i++) {
+            mismatches |= puzzle[i] == 0 ? 0 : puzzle[i] ^ solution[i];
+        }
+        return mismatches == 0;
     }
 
+    // A value is legal when it is not already used in the cell's row, column or box.
     public boolean isLegal(int row, int col, int value) {
-    
-        // Check the 3x3 square
-        int startRow = (row / 3) * 3;
-        int startCol = (col / 3) * 3;
-        for (int r = startRow; r < startRow + 3; r++) {
-            for (int c = startCol; c < startCol + 3; c++) {
-                if (board[r][c] == value) {
-                    return false;
-                }
-            }
-        }
-        // Check the row and column
-        for (int i = 0; i < 9; i++) {
-            if (board[row][i] == value || board[i][col] == value) {
-                return false;
-            }
+        if (value < 1 || value > size) {
+            return false;
         }
-    
-        return true;
+        return (usedMask(row, col) & (1 << (value - 1))) == 0;
+    }
+
+    private int usedMask(int row, int col) {
+        return unitMask[row] | unitMask[size + col] | unitMask[2 * size + geometry.box(row, col)];
     }
-    
+
     // Clear the list of all moves
     public void clearMoves() {
-        allMoves.clear(); 
+        history.clear();
     }
 
     // Returns the value of a specific cell.
@@ -202,80 +612,98 @@ public class Board {
         return board[row][col];
     }
 
+    // Copies the board into a flat row-major array of size * size cells (0 for empty).
+    public int[] toArray() {
+        int[] cells = new int[geometry.getCellCount()];
+        for (int row = 0; row < size; row++) {
+            System.arraycopy(board[row], 0, cells, row * size, size);
+        }
+        return cells;
+    }
+
+    // Immutable copy of the cells. Repeated calls return the same snapshot until a cell changes.
+    public BoardSnapshot snapshot() {
+        if (snapshot == null || snapshotVersion != version) {
+            byte[] cells = new byte[geometry.getCellCount()];
+            for (int row = 0, i = 0; row < size; row++) {
+                for (int col = 0; col < size; col++, i++) {
+                    cells[i] = (byte) board[row][col];
+                }
+            }
+            snapshot = new BoardSnapshot(geometry, cells, zobrist);
+            snapshotVersion = version;
+        }
+        return snapshot;
+    }
+
+    // A board holding the snapshot's cells, with no move history. Unlike fromArray the cells
+    // are not validated: a snapshot may carry the conflicts of the board it was taken from.
+    public static Board fromSnapshot(BoardSnapshot snapshot) {
+        Board board = new Board(snapshot.getGeometry());
+        int size = board.size;
+        for (int i = 0; i < board.geometry.getCellCount(); i++) {
+            int value = snapshot.getCell(i);
+            if (value != 0) {
+                board.place(i / size, i % size, value);
+            }
+        }
+        return board;
+    }
+
     // Determines if a specific cell already has a value.
     public boolean hasValue(int row, int col) {
         return getCell(row, col) > 0;
     }
 
+    // Returns the possible values for a cell as a bitmask: bit (v - 1) is set when v is allowed.
+    public int getCandidateMask(int row, int col) {
+        return ~usedMask(row, col) & geometry.getAllValues();
+    }
+
     // Computes the set of possible values for a specific cell based on Sudoku rules.
     public Set<Integer> getPossibleValues(int row, int col) {
         Set<Integer> possibleValues = new HashSet<>();
-        for (int i = 1; i <= 9; i++) {
-            possibleValues.add(i);
-        }
-
-        // Eliminate impossible values by checking row, column, and 3x3 subgrid.
-        for (int c = 0; c < 9; c++) {
-            possibleValues.remove(getCell(row, c));
+        for (int mask = getCandidateMask(row, col); mask != 0; mask &= mask - 1) {
+            possibleValues.add(Integer.numberOfTrailingZeros(mask) + 1);
         }
-        for (int r = 0; r < 9; r++) {
-            possibleValues.remove(getCell(r, col));
-        }
-        int startRow = row / 3 * 3;
-        int startCol = col / 3 * 3;
-        for (int r = startRow; r < startRow + 3; r++) {
-            for (int c = startCol; c < startCol + 3; c++)
-            {
-                possibleValues.remove(getCell(r, c));
-          }
-        }
-
         return possibleValues;
     }
 
+    // Checks whether the box containing the cell holds every value exactly once.
     public boolean checkAndCompleteGrid(int row, int col) {
-        int startRow = (row / 3) * 3;
-        int startCol = (col / 3) * 3;
-        boolean[] found = new boolean[10]; // Track numbers 1-9; index 0 is unused
-    
-        for (int r = startRow; r < startRow + 3; r++) {
-            for (int c = startCol; c < startCol + 3; c++) {
-                int cellValue = board[r][c];
-                if (cellValue < 1 || cellValue > 9 || found[cellValue]) {
-                    return false; // Duplicate or invalid value in 3x3 grid
-                }
-                found[cellValue] = true;
-            }
-        }
-    
-        return true; // All numbers 1-9 are correctly placed once
+        return completedUnits[2 * size + geometry.box(row, col)];
     }
-    
 
     //Find the cells to give hints
     public List<int[]> getCellsForHints() {
+        SudokuEvents.Hint event = new SudokuEvents.Hint();
+        event.begin();
         List<int[]> hintCells = new ArrayList<>();
-        for (int row = 0; row < 9; row++) {
-            for (int col = 0; col < 9; col++) {
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
                 if (board[row][col] == 0) { // check only empty cells
-                    Set<Integer> possibleValues = getPossibleValues(row, col);
-                    if (possibleValues.size() == 1) {
+                    if (Integer.bitCount(getCandidateMask(row, col)) == 1) {
                         hintCells.add(new int[]{row, col});
                     }
                 }
             }
         }
+        if (event.shouldCommit()) {
+            event.technique = "Single candidate cells";
+            event.cells = hintCells.size();
+            event.commit();
+        }
         return hintCells;
     }
-    
+
 
     // Generates a string representation of the board, primarily for debugging.
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        for (int row = 0; row < 9; row++) {
-            for (int col = 0; col < 9; col++) {
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
                 sb.append(getCell(row, col));
-                if (col < 8) {
+                if (col < size - 1) {
                     sb.append(" ");
                 }
             }
@@ -285,6 +713,3 @@ public class Board {
     }
 
 }
-
-
-
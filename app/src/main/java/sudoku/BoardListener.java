@@ -0,0 +1,29 @@
+package sudoku;
+
+// Receives state changes from a Board. Methods run synchronously inside the call
+// that changed the board, so they should be quick.
+public interface BoardListener {
+
+    enum Unit { ROW, COLUMN, BOX }
+
+    // One cell now holds newValue instead of oldValue (0 for empty).
+    default void cellChanged(int row, int col, int oldValue, int newValue) {
+    }
+
+    // A move was entered through setCell, applyMoves or redoLastMove (redone is true for
+    // the latter). The move is packed as by MoveJournal.pack. Fired before cellChanged.
+    default void moveMade(int move, boolean redone) {
+    }
+
+    // undoLastMove reverted the move. Fired before cellChanged.
+    default void moveUndone(int move) {
+    }
+
+    // A row, column or box (index 0 to size - 1) now holds every value exactly once.
+    default void unitCompleted(Unit unit, int index) {
+    }
+
+    // Every cell is filled and no unit has a duplicate.
+    default void boardSolved() {
+    }
+}
@@ -0,0 +1,141 @@
+package sudoku;
+
+import java.util.Arrays;
+
+// Immutable copy of a board's cells, one byte per cell in row-major order (0 for empty).
+//
+// Snapshots are safe to share between threads without locking. Changing a cell with
+// with() returns a new snapshot and leaves this one alone; for the sizes supported
+// (at most 625 cells) copying the bytes is cheaper than any sharing structure would be.
+// Board.snapshot() hands out the same instance until the board changes, so taking
+// snapshots of an unchanged board is free. Only the cells are kept, not move history.
+public final class BoardSnapshot {
+    private final Geometry geometry;
+    private final byte[] cells;
+    private final long zobrist;
+
+    // Takes ownership of cells; callers must not modify the array afterwards.
+    BoardSnapshot(Geometry geometry, byte[] cells, long zobrist) {
+        this.geometry = geometry;
+        this.cells = cells;
+        this.zobrist = zobrist;
+    }
+
+    // Snapshot of row-major cells (0 for empty); their count gives the board size.
+    // Cells are range-checked but not checked for duplicates, like a board in initialization.
+    public static BoardSnapshot of(int[] cells) throws IllegalArgumentException {
+        Geometry geometry = Geometry.forCellCount(cells.length);
+        int size = geometry.getSize();
+        byte[] bytes = new byte[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] < 0 || cells[i] > size) {
+                throw new IllegalArgumentException("Board contains values outside acceptable range (0-" + size + ").");
+            }
+            bytes[i] = (byte) cells[i];
+        }
+        return new BoardSnapshot(geometry, bytes, Board.zobristHash(cells));
+    }
+
+    public static BoardSnapshot of(Board board) {
+        return board.snapshot();
+    }
+
+    public Geometry getGeometry() {
+        return geometry;
+    }
+
+    public int getSize() {
+        return geometry.getSize();
+    }
+
+    public int getCell(int row, int col) {
+        return cells[row * geometry.getSize() + col];
+    }
+
+    // Value of a cell by its row-major index.
+    public int getCell(int cell) {
+        return cells[cell];
+    }
+
+    public boolean hasValue(int row, int col) {
+        return getCell(row, col) > 0;
+    }
+
+    // A snapshot with one cell changed; this one is returned when the value is already there.
+    public BoardSnapshot with(int row, int col, int value) {
+        int size = geometry.getSize();
+        if (row < 0 || row >= size || col < 0 || col >= size || value < 0 || value > size) {
+            throw new IllegalArgumentException("Cell (" + row + ", " + col + ") = " + value + " is outside the board.");
+        }
+        int cell = row * size + col;
+        int old = cells[cell];
+        if (old == value) {
+            return this;
+        }
+        byte[] copy = cells.clone();
+        copy[cell] = (byte) value;
+        return new BoardSnapshot(geometry, copy, zobrist ^ Board.zobristKey(geometry, cell, old) ^ Board.zobristKey(geometry, cell, value));
+    }
+
+    // Number of filled cells.
+    public int getFilledCount() {
+        int filled = 0;
+        for (byte value : cells) {
+            if (value != 0) {
+                filled++;
+            }
+        }
+        return filled;
+    }
+
+    // Same hash as a Board holding these cells.
+    public long getZobristHash() {
+        return zobrist;
+    }
+
+    public int[] toArray() {
+        int[] array = new int[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            array[i] = cells[i];
+        }
+        return array;
+    }
+
+    // A new mutable board holding these cells, with no move history.
+    public Board toBoard() {
+        return Board.fromSnapshot(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BoardSnapshot)) {
+            return false;
+        }
+        BoardSnapshot other = (BoardSnapshot) o;
+        return zobrist == other.zobrist && Arrays.equals(cells, other.cells);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(zobrist);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        int size = geometry.getSize();
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                sb.append(cells[row * size + col]);
+                if (col < size - 1) {
+                    sb.append(" ");
+                }
+            }
+            sb.append("\n");
+        }
+        return sb.toString();
+    }
+}
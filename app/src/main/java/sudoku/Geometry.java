@@ -0,0 +1,155 @@
+package sudoku;
+
+// Shape of an N x N Sudoku whose boxes are n x n (N = n * n), for n from 2 to 5:
+// 4x4, 9x9, 16x16 and 25x25 grids. Values run from 1 to N, and value v is bit (v - 1)
+// of an int candidate mask, so every supported size fits in one int.
+//
+// Units 0..N-1 are rows, N..2N-1 columns and 2N..3N-1 boxes. Instances are shared
+// and immutable; the arrays they return must not be modified.
+public final class Geometry {
+    public static final int MIN_BOX_SIZE = 2;
+    public static final int MAX_BOX_SIZE = 5;
+
+    private static final Geometry[] SHAPES = new Geometry[MAX_BOX_SIZE + 1];
+
+    static {
+        for (int n = MIN_BOX_SIZE; n <= MAX_BOX_SIZE; n++) {
+            SHAPES[n] = new Geometry(n);
+        }
+    }
+
+    // The classic 9x9 grid.
+    public static final Geometry STANDARD = SHAPES[3];
+
+    private final int boxSize;
+    private final int size;
+    private final int cellCount;
+    private final int allValues;
+    private final int[] rowOf;
+    private final int[] colOf;
+    private final int[] boxOf;
+    private final int[][] units;
+    private final int[][] unitsOf;
+
+    private Geometry(int boxSize) {
+        this.boxSize = boxSize;
+        this.size = boxSize * boxSize;
+        this.cellCount = size * size;
+        this.allValues = (1 << size) - 1;
+        rowOf = new int[cellCount];
+        colOf = new int[cellCount];
+        boxOf = new int[cellCount];
+        units = new int[3 * size][size];
+        unitsOf = new int[cellCount][3];
+        for (int cell = 0; cell < cellCount; cell++) {
+            rowOf[cell] = cell / size;
+            colOf[cell] = cell % size;
+            boxOf[cell] = rowOf[cell] / boxSize * boxSize + colOf[cell] / boxSize;
+        }
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                units[i][j] = i * size + j;
+                units[size + i][j] = j * size + i;
+                units[2 * size + i][j] = (i / boxSize * boxSize + j / boxSize) * size + i % boxSize * boxSize + j % boxSize;
+            }
+        }
+        for (int u = 0; u < 3 * size; u++) {
+            for (int cell : units[u]) {
+                unitsOf[cell][u / size] = u;
+            }
+        }
+    }
+
+    public static Geometry of(int boxSize) {
+        if (boxSize < MIN_BOX_SIZE || boxSize > MAX_BOX_SIZE) {
+            throw new IllegalArgumentException("Box size must be between " + MIN_BOX_SIZE + " and " + MAX_BOX_SIZE + ".");
+        }
+        return SHAPES[boxSize];
+    }
+
+    // The geometry with the given number of cells (16, 81, 256 or 625).
+    public static Geometry forCellCount(int cellCount) {
+        Geometry geometry = forCellCountOrNull(cellCount);
+        if (geometry == null) {
+            throw new IllegalArgumentException("Board must contain 16, 81, 256 or 625 cells, not " + cellCount + ".");
+        }
+        return geometry;
+    }
+
+    // Like forCellCount, but null for an unsupported cell count, for callers that only test a grid.
+    public static Geometry forCellCountOrNull(int cellCount) {
+        for (int n = MIN_BOX_SIZE; n <= MAX_BOX_SIZE; n++) {
+            if (SHAPES[n].cellCount == cellCount) {
+                return SHAPES[n];
+            }
+        }
+        return null;
+    }
+
+    // Width of a box (n).
+    public int getBoxSize() {
+        return boxSize;
+    }
+
+    // Width of the grid and the largest value (N).
+    public int getSize() {
+        return size;
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    public int getUnitCount() {
+        return 3 * size;
+    }
+
+    // Mask with one bit per value.
+    public int getAllValues() {
+        return allValues;
+    }
+
+    public int row(int cell) {
+        return rowOf[cell];
+    }
+
+    public int col(int cell) {
+        return colOf[cell];
+    }
+
+    public int box(int cell) {
+        return boxOf[cell];
+    }
+
+    public int box(int row, int col) {
+        return row / boxSize * boxSize + col / boxSize;
+    }
+
+    // Per-cell row, column and box indexes, for hot loops.
+    public int[] rows() {
+        return rowOf;
+    }
+
+    public int[] cols() {
+        return colOf;
+    }
+
+    public int[] boxes() {
+        return boxOf;
+    }
+
+    // The cells of every unit.
+    public int[][] units() {
+        return units;
+    }
+
+    // The row, column and box unit of every cell.
+    public int[][] unitsOf() {
+        return unitsOf;
+    }
+
+    @Override
+    public String toString() {
+        return size + "x" + size;
+    }
+}
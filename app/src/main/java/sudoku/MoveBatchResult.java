@@ -0,0 +1,45 @@
+package sudoku;
+
+// Outcome of Board.applyMoves: how far the sequence got and the state it left the board in.
+public final class MoveBatchResult {
+
+    public enum Verdict {
+        SOLVED,     // every move was legal and the board is complete
+        INCOMPLETE, // every move was legal but empty cells remain
+        REJECTED    // a move was illegal; the moves after it were not applied
+    }
+
+    private final Verdict verdict;
+    private final int applied;
+    private final int illegalMove;
+
+    MoveBatchResult(Verdict verdict, int applied, int illegalMove) {
+        this.verdict = verdict;
+        this.applied = applied;
+        this.illegalMove = illegalMove;
+    }
+
+    public Verdict getVerdict() {
+        return verdict;
+    }
+
+    // Number of moves applied before the sequence ended or was rejected.
+    public int getApplied() {
+        return applied;
+    }
+
+    // Index of the first illegal move in the submitted array, or -1.
+    public int getIllegalMoveIndex() {
+        return verdict == Verdict.REJECTED ? applied : -1;
+    }
+
+    // The first illegal move, packed as by MoveJournal.pack, or MoveJournal.NONE.
+    public int getIllegalMove() {
+        return illegalMove;
+    }
+
+    @Override
+    public String toString() {
+        return verdict + " after " + applied + " move(s)";
+    }
+}
@@ -0,0 +1,141 @@
+package sudoku;
+
+// Compact move log: each move is packed into one int (row, col, old value, new value,
+// one byte each) and kept in a growable primitive ring buffer.
+//
+// Entries before the cursor have been applied; entries after it were undone and can be
+// redone until a new move is pushed. When the buffer reaches maxCapacity the oldest
+// entry is dropped, so a long session uses bounded memory and creates no per-move garbage.
+public final class MoveJournal {
+    public static final int NONE = -1;
+    private static final int DEFAULT_MAX_CAPACITY = 1 << 20;
+
+    private int[] entries;
+    private final int maxCapacity;
+    private int head; // Buffer index of the oldest retained entry.
+    private int size; // Retained entries, applied or redoable.
+    private int cursor; // Number of applied entries.
+    private long dropped; // Entries evicted from the front because of maxCapacity.
+
+    public MoveJournal() {
+        this(DEFAULT_MAX_CAPACITY);
+    }
+
+    public MoveJournal(int maxCapacity) {
+        if (maxCapacity < 1) {
+            throw new IllegalArgumentException("Journal capacity must be positive.");
+        }
+        this.maxCapacity = maxCapacity;
+        this.entries = new int[Math.min(16, maxCapacity)];
+    }
+
+    public static int pack(int row, int col, int oldValue, int newValue) {
+        return row << 24 | col << 16 | oldValue << 8 | newValue;
+    }
+
+    public static int row(int move) {
+        return move >>> 24;
+    }
+
+    public static int col(int move) {
+        return move >>> 16 & 0xFF;
+    }
+
+    public static int oldValue(int move) {
+        return move >>> 8 & 0xFF;
+    }
+
+    public static int newValue(int move) {
+        return move & 0xFF;
+    }
+
+    // Records a new move, discarding anything that could have been redone.
+    public void push(int move) {
+        size = cursor;
+        if (size == entries.length) {
+            if (entries.length < maxCapacity) {
+                grow();
+            } else {
+                head = (head + 1) % entries.length;
+                size--;
+                cursor--;
+                dropped++;
+            }
+        }
+        entries[(head + size) % entries.length] = move;
+        size++;
+        cursor++;
+    }
+
+    // Steps back over the last applied move and returns it, or NONE.
+    public int undo() {
+        if (cursor == 0) {
+            return NONE;
+        }
+        cursor--;
+        return entries[(head + cursor) % entries.length];
+    }
+
+    // Steps forward over the next undone move and returns it, or NONE.
+    public int redo() {
+        if (cursor == size) {
+            return NONE;
+        }
+        return entries[(head + cursor++) % entries.length];
+    }
+
+    // Applied move number i, oldest first (0 <= i < size()).
+    public int get(int i) {
+        if (i < 0 || i >= cursor) {
+            throw new IndexOutOfBoundsException("Move " + i + " out of range [0, " + cursor + ").");
+        }
+        return entries[(head + i) % entries.length];
+    }
+
+    // Number of applied moves still retained.
+    public int size() {
+        return cursor;
+    }
+
+    public boolean isEmpty() {
+        return cursor == 0;
+    }
+
+    public boolean canRedo() {
+        return cursor < size;
+    }
+
+    // Number of undone moves that can be redone.
+    public int redoSize() {
+        return size - cursor;
+    }
+
+    // Undone move number i in redo order, the next one to redo first (0 <= i < redoSize()).
+    public int getUndone(int i) {
+        if (i < 0 || i >= size - cursor) {
+            throw new IndexOutOfBoundsException("Undone move " + i + " out of range [0, " + (size - cursor) + ").");
+        }
+        return entries[(head + cursor + i) % entries.length];
+    }
+
+    // Number of moves evicted because the journal was full.
+    public long getDropped() {
+        return dropped;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+        cursor = 0;
+        dropped = 0;
+    }
+
+    private void grow() {
+        int[] grown = new int[(int) Math.min((long) entries.length * 2, maxCapacity)];
+        for (int i = 0; i < size; i++) {
+            grown[i] = entries[(head + i) % entries.length];
+        }
+        entries = grown;
+        head = 0;
+    }
+}
@@ -3,8 +3,13 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.net.URL;
 import javafx.application.Application;
 import javafx.scene.Scene;
@@ -21,12 +26,25 @@ import javafx.scene.layout.VBox;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import sudoku.Board.Move;
+import sudoku.hint.Hint;
+import sudoku.hint.HintEngine;
+import sudoku.io.MoveLog;
+import sudoku.metrics.Metrics;
+import sudoku.metrics.SudokuEvents;
 import javafx.scene.media.Media;
 import javafx.scene.media.MediaPlayer;
 import javafx.scene.control.Label;
 import javafx.scene.control.CustomMenuItem;
-import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import javafx.application.Platform;
+import javafx.scene.control.ProgressIndicator;
 
 
 
@@ -41,6 +59,26 @@ import java.util.stream.Collectors;
         private Label mistakesLabel;
         private Label scoreLabel;
         private boolean updatingBoard = false;
+        // Fields whose style or text differ from the board, so clearing and repainting
+        // only visit those instead of all 81.
+        private final List<TextField> hintedFields = new ArrayList<>();
+        private final Set<TextField> selectedFields = new LinkedHashSet<>();
+        private final BitSet rejectedCells = new BitSet(); // Show a value the board refused.
+        // Hints, candidate lists and file parsing run here so the FX Application Thread only draws.
+        private final ExecutorService background = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sudoku-analysis");
+            thread.setDaemon(true);
+            return thread;
+        });
+        private ProgressIndicator busyIndicator; // Shown while background work is running.
+        private int runningTasks;
+        private CompletableFuture<?> pendingHint;
+        private final HintEngine hintEngine = new HintEngine(); // Only used from the background thread.
+        private long loadGeneration; // Bumped per load so only the latest file is shown.
+        // Every move is logged here so a crash loses nothing; -Dsudoku.autosave=<dir> moves it.
+        private static final Path AUTOSAVE_DIR = Path.of(System.getProperty("sudoku.autosave",
+                System.getProperty("user.home") + "/.sudoku/autosave"));
+        private MoveLog autosave;
 
         
 
@@ -56,6 +94,11 @@ import java.util.stream.Collectors;
         root.getChildren().add(gridPane);
         gridPane.getStyleClass().add("grid-pane");
 
+        busyIndicator = new ProgressIndicator(ProgressIndicator.INDETERMINATE_PROGRESS);
+        busyIndicator.setMaxSize(30, 30);
+        busyIndicator.setVisible(false);
+        root.getChildren().add(busyIndicator);
+
                 
 
         // Initialize background music
@@ -93,14 +136,15 @@ import java.util.stream.Collectors;
                 // add a handler for when we select a textfield
                 textField.setOnMouseClicked(event -> {
                     // toggle highlighting
-                    if (textField.getStyleClass().contains("text-field-selected"))
+                    if (selectedFields.contains(textField))
                     {
                         // remove the highlight if we click on a selected cell
-                        textField.getStyleClass().remove("text-field-selected");
+                        deselect(textField);
                     }
                     else
                     {
                         // otherwise 
+                        selectedFields.add(textField);
                         textField.getStyleClass().add("text-field-selected");
                     }
                 });
@@ -110,7 +154,7 @@ import java.util.stream.Collectors;
                     if (!newValue)
                     {
                         // remove the highlight when we lose focus
-                        textField.getStyleClass().remove("text-field-selected");
+                        deselect(textField);
                     }
                 });
 
@@ -127,22 +171,24 @@ import java.util.stream.Collectors;
                     int r = Integer.parseInt(parts[0]);
                     int c = Integer.parseInt(parts[1]);
     
-                    // Get possible values for this cell
-                    Set<Integer> possibleValues = board.getPossibleValues(r, c);
-                    String possibleValuesText = possibleValues.stream()
-                                                            .sorted()
-                                                            .map(String::valueOf)
-                                                            .collect(Collectors.joining(" "));
-
-                    // Create and show the alert with possible values
-                    Alert alert = new Alert(AlertType.INFORMATION);
-                    alert.setTitle("Possible values for cell (" + r + ", " + c + ")");
-                    alert.setHeaderText(null); 
-                    alert.setContentText("Possible values: " + possibleValuesText);
-                    alert.showAndWait();
-
-                    // Remove the highlight once done
-                    textField.getStyleClass().remove("text-field-highlight");
+                    // Get possible values for this cell from a snapshot, off the FX thread
+                    BoardSnapshot position = board.snapshot();
+                    runInBackground(() -> position.toBoard().getPossibleValues(r, c), boardUnchanged(), possibleValues -> {
+                        String possibleValuesText = possibleValues.stream()
+                                                                .sorted()
+                                                                .map(String::valueOf)
+                                                                .collect(Collectors.joining(" "));
+
+                        // Create and show the alert with possible values
+                        Alert alert = new Alert(AlertType.INFORMATION);
+                        alert.setTitle("Possible values for cell (" + r + ", " + c + ")");
+                        alert.setHeaderText(null); 
+                        alert.setContentText("Possible values: " + possibleValuesText);
+                        alert.showAndWait();
+                    }, error -> showTaskError("Unable to compute the possible values.", error), () -> {
+                        // Remove the highlight once done, even if the board changed meanwhile
+                        textField.getStyleClass().remove("text-field-highlight");
+                    });
                 });
 
                 // using a listener instead of a KEY_TYPED event handler
@@ -159,7 +205,8 @@ import java.util.stream.Collectors;
                         return;
                     }
 
-                    
+                    SudokuEvents.Input input = new SudokuEvents.Input();
+                    input.begin();
 
                     String id = textField.getId();
                     String[] parts = id.split("-");
@@ -169,6 +216,8 @@ import java.util.stream.Collectors;
                     if (!newValue.isEmpty()) {
                         int value = Integer.parseInt(newValue);
                         boolean result = board.setCell(r, c, value, false); // This now returns a boolean
+                        input.accepted = result;
+                        rejectedCells.set(r * SIZE + c, !result);
                         if (result) {
                             if (oldValue.isEmpty() || Integer.parseInt(oldValue) != value) {
                                 updateScore(50); // Update score by 50 for a correct move
@@ -176,35 +225,20 @@ import java.util.stream.Collectors;
                         } else {
                             updateMistakes(1); // Update mistakes count by 1 for an incorrect move
                         }
+                        // remove the highlight when we set a value
+                        deselect(textField);
                     } else {
                         board.setCell(r, c, 0,false); // Handle empty input
+                        rejectedCells.clear(r * SIZE + c);
                     }
-                    
-
-                    
-                    if (newValue.length() > 0)
-                    {
-                        try
-                        {
-                            System.out.printf("Setting cell %d, %d to %s\n", r, c, newValue);
-                            int value = Integer.parseInt(newValue);
-                            board.setCell(r, c, value,false);
-                            // remove the highlight when we set a value
-                            textField.getStyleClass().remove("text-field-selected");
-                        }
-                        catch (NumberFormatException e)
-                        {
-                            // ignore; should never happen
-                        }
-                        catch (Exception e)
-                        {
-                            // TODO: if the value is not a possible value, catch the exception and show an alert
-                            System.out.println("Invalid Value: " + newValue);
-                        }
-                    }
-                    else
-                    {
-                        board.setCell(r, c, 0,false); //change
+                    // The field already shows what was typed, so the next repaint can skip it.
+                    board.clearDirty(r, c);
+
+                    if (input.shouldCommit()) {
+                        input.row = r;
+                        input.col = c;
+                        input.text = newValue;
+                        input.commit();
                     }
                 });
             }
@@ -212,28 +246,25 @@ import java.util.stream.Collectors;
 
         // add key listener to the root node to grab ESC keys
         root.setOnKeyPressed(event -> {
-            System.out.println("Key pressed: " + event.getCode());
             switch (event.getCode())
             {
                 // check for the ESC key
                 case ESCAPE:
                     // clear all the selected text fields
-                    for (int row = 0; row < SIZE; row++)
+                    for (TextField textField : selectedFields)
                     {
-                        for (int col = 0; col < SIZE; col++)
-                        {
-                            TextField textField = textFields[row][col];
-                            textField.getStyleClass().remove("text-field-selected");
-                        }
+                        textField.getStyleClass().remove("text-field-selected");
                     }
+                    selectedFields.clear();
                     break;
                 default:
-                    System.out.println("you typed key: " + event.getCode());
                     break;
                 
             }
         });
 
+        resumeAutosave();
+
         Scene scene = new Scene(root, width, height);
 
         URL styleURL = getClass().getResource("/style.css");
@@ -242,10 +273,96 @@ import java.util.stream.Collectors;
         primaryStage.setTitle("Sudoku");
         primaryStage.setScene(scene);
         primaryStage.show();
+    }
 
-        primaryStage.setOnCloseRequest(event -> {
-        	System.out.println("oncloserequest");
-        });
+    @Override
+    public void stop() {
+        closeAutosave();
+        background.shutdownNow();
+    }
+
+    // Picks up the game an earlier run was in the middle of, then keeps logging it.
+    private void resumeAutosave() {
+        try {
+            Board recovered = MoveLog.recover(AUTOSAVE_DIR);
+            if (recovered != null && recovered.getSize() == SIZE) {
+                board = recovered;
+                repaintAll();
+            }
+        } catch (IOException e) {
+            System.err.println("Could not restore the autosaved game: " + e.getMessage());
+        }
+        startAutosave();
+    }
+
+    private void startAutosave() {
+        try {
+            autosave = MoveLog.attach(AUTOSAVE_DIR, board);
+        } catch (IOException e) {
+            autosave = null;
+            System.err.println("Autosave is off: " + e.getMessage());
+        }
+    }
+
+    private void closeAutosave() {
+        if (autosave != null) {
+            try {
+                autosave.close();
+            } catch (IOException e) {
+                System.err.println("Autosave failed: " + e.getMessage());
+            }
+            autosave = null;
+        }
+    }
+
+    // Runs work on the background thread and passes its result to onResult on the FX thread,
+    // but only if stillWanted (checked on the FX thread) says it is not stale. onError gets
+    // failures; afterwards, if given, runs once the task is over whatever happened.
+    private <T> CompletableFuture<T> runInBackground(Callable<T> work, BooleanSupplier stillWanted,
+            Consumer<T> onResult, Consumer<Exception> onError, Runnable afterwards) {
+        runningTasks++;
+        busyIndicator.setVisible(true);
+        CompletableFuture<T> task = CompletableFuture.supplyAsync(() -> {
+            try {
+                return work.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, background);
+        task.whenComplete((result, error) -> Platform.runLater(() -> {
+            if (--runningTasks == 0) {
+                busyIndicator.setVisible(false);
+            }
+            if (error == null && stillWanted.getAsBoolean()) {
+                onResult.accept(result);
+            } else if (error != null && !task.isCancelled() && stillWanted.getAsBoolean()) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                onError.accept(cause instanceof Exception ? (Exception) cause : new RuntimeException(cause));
+            }
+            if (afterwards != null) {
+                afterwards.run();
+            }
+        }));
+        return task;
+    }
+
+    private <T> CompletableFuture<T> runInBackground(Callable<T> work, BooleanSupplier stillWanted,
+            Consumer<T> onResult, Consumer<Exception> onError) {
+        return runInBackground(work, stillWanted, onResult, onError, null);
+    }
+
+    // Reports a failed background task, which would otherwise vanish on the worker thread.
+    private void showTaskError(String message, Exception error) {
+        System.err.println(message + " " + error);
+        Alert alert = new Alert(AlertType.ERROR, message + "\n" + error.getMessage(), ButtonType.OK);
+        alert.showAndWait();
+    }
+
+    // True while the current board is the same, unmodified board as when this was called.
+    private BooleanSupplier boardUnchanged() {
+        Board target = board;
+        long version = board.getVersion();
+        return () -> board == target && board.getVersion() == version;
     }
 
     private void updateMistakes(int increment) {
@@ -263,35 +380,21 @@ import java.util.stream.Collectors;
  
     private void initBackgroundMusic() {
         URL musicResource = getClass().getResource("/Background.mp3");
-        System.out.println("Resource URL: " + musicResource); // Should not be null
         if (musicResource != null) {
             Media backgroundMusic = new Media(musicResource.toString());
             backgroundPlayer = new MediaPlayer(backgroundMusic);
             backgroundPlayer.setCycleCount(MediaPlayer.INDEFINITE); // Loop indefinitely
 
             backgroundPlayer.setOnError(() -> {
-                System.out.println("Error with media player: " + backgroundPlayer.getError().getMessage());
+                System.err.println("Error with media player: " + backgroundPlayer.getError().getMessage());
             });
     
             backgroundPlayer.setOnReady(() -> {
-                System.out.println("MediaPlayer is ready, playing music.");
                 backgroundPlayer.play();
             });
-    
-            backgroundPlayer.setOnPlaying(() -> {
-                System.out.println("Music is now playing.");
-            });
-    
-            backgroundPlayer.setOnEndOfMedia(() -> {
-                System.out.println("Reached end of media.");
-            });
-    
-            backgroundPlayer.setOnStopped(() -> {
-                System.out.println("MediaPlayer has stopped.");
-            });
 
         } else {
-            System.out.println("Background music file not found.");
+            System.err.println("Background music file not found.");
         }
     }
 
@@ -353,11 +456,8 @@ import java.util.stream.Collectors;
         Menu editMenu = new Menu("Edit");
         MenuItem undoMenuItem = new MenuItem("Undo");
         undoMenuItem.setOnAction(event -> {
-            Move lastMove = board.undoLastMove();
-            if (lastMove != null) {
-                textFields[lastMove.row][lastMove.col].setText(lastMove.oldValue > 0 ? String.valueOf(lastMove.oldValue) : "");
-            }
-            updateBoard();
+            board.undoLastMove();
+            updateBoard(); // repaints just the cell the undo touched
         });
     
         MenuItem showValuesMenuItem = new MenuItem("Show values entered");
@@ -369,7 +469,12 @@ import java.util.stream.Collectors;
         MenuItem showHintItem = new MenuItem("Show Hint");
         showHintItem.setOnAction(event -> {
             clearHints();  // Clear previous hints before showing new ones
-            showHints();
+            if (pendingHint != null) {
+                pendingHint.cancel(false); // a newer request supersedes it
+            }
+            BoardSnapshot position = board.snapshot();
+            pendingHint = runInBackground(() -> hintEngine.nextHint(position.toBoard()), boardUnchanged(),
+                    this::showHint, error -> showTaskError("Unable to compute hints.", error));
         });
         hintMenu.getItems().add(showHintItem);
     
@@ -382,10 +487,15 @@ import java.util.stream.Collectors;
 
     // Method to clear previous hints 
     private void clearHints() {
-        for (int row = 0; row < 9; row++) {
-            for (int col = 0; col < 9; col++) {
-                textFields[row][col].getStyleClass().remove("hint-highlight");
-            }
+        for (TextField textField : hintedFields) {
+            textField.getStyleClass().remove("hint-highlight");
+        }
+        hintedFields.clear();
+    }
+
+    private void deselect(TextField textField) {
+        if (selectedFields.remove(textField)) {
+            textField.getStyleClass().remove("text-field-selected");
         }
     }
 
@@ -396,18 +506,28 @@ import java.util.stream.Collectors;
         fileChooser.setInitialDirectory(new File("../puzzles"));
         File file = fileChooser.showOpenDialog(primaryStage);
         if (file != null) {
-            try {
+            long generation = ++loadGeneration;
+            // Parse in the background; only the most recently chosen file is shown.
+            runInBackground(() -> {
                 FileInputStream fis = new FileInputStream(file);
-                System.out.println("Loading...");
+                Board loaded = Board.loadBoard(fis, true);  // Load the board with initialization true
+                if (loaded.getSize() != SIZE) {
+                    // The window only draws 9x9 grids; larger boards are for the headless API.
+                    throw new IllegalArgumentException("Only 9x9 boards can be played here.");
+                }
+                return loaded;
+            }, () -> generation == loadGeneration, loaded -> {
+                closeAutosave();
                 board.startInitialization();  // Signal start of initialization
-                board = Board.loadBoard(fis, true);  // Load the board with initialization true
+                board = loaded;
                 board.endInitialization();    // Signal end of initialization
-                updateBoard();
-                System.out.println("Loaded successfully.");
-            } catch (Exception e) {
+                startAutosave();
+                clearHints();
+                repaintAll();
+            }, e -> {
                 Alert alert = new Alert(AlertType.ERROR, "Unable to load sudoku board from file.", ButtonType.OK);
                 alert.showAndWait();
-            }
+            });
         }
     }
     
@@ -421,7 +541,15 @@ import java.util.stream.Collectors;
         File file = fileChooser.showSaveDialog(primaryStage);
         if (file != null && confirmOverwrite(primaryStage, file)) {
             try {
-                Files.write(file.toPath(), board.toString().getBytes());
+                SudokuEvents.Save event = new SudokuEvents.Save();
+                event.begin();
+                byte[] bytes = board.toString().getBytes();
+                Files.write(file.toPath(), bytes);
+                if (event.shouldCommit()) {
+                    event.path = file.getPath();
+                    event.bytes = bytes.length;
+                    event.commit();
+                }
                 Alert successAlert = new Alert(AlertType.INFORMATION, "The board was successfully saved.", ButtonType.OK);
                 successAlert.showAndWait();
             } catch (IOException e) {
@@ -432,15 +560,28 @@ import java.util.stream.Collectors;
     }
 
     //Showing hints of which cells are unique
-    private void showHints() {
-        List<int[]> hintCells = board.getCellsForHints();
-        for (int[] cell : hintCells) {
-            int row = cell[0];
-            int col = cell[1];
-            TextField textField = textFields[row][col];
-            textField.getStyleClass().add("hint-highlight"); // make sure to define this style class in your CSS
+    // Highlights the cell a hint places into, or the cells it removes candidates from, and explains why.
+    private void showHint(Hint hint) {
+        if (hint == null) {
+            new Alert(AlertType.INFORMATION, "No hint available for this position.", ButtonType.OK).showAndWait();
+            return;
         }
-    }    
+        for (int row = 0; row < textFields.length; row++) {
+            for (int col = 0; col < textFields[row].length; col++) {
+                boolean hinted = hint.isPlacement()
+                        ? row == hint.getRow() && col == hint.getCol()
+                        : hint.getEliminations(row, col) != 0;
+                if (hinted) {
+                    TextField textField = textFields[row][col];
+                    textField.getStyleClass().add("hint-highlight"); // make sure to define this style class in your CSS
+                    hintedFields.add(textField);
+                }
+            }
+        }
+        Alert alert = new Alert(AlertType.INFORMATION, hint.getReasoning(), ButtonType.OK);
+        alert.setHeaderText(hint.getTechnique().getDisplayName());
+        alert.showAndWait();
+    }
 
     //Confirming that I am overwriting the files when saving them
     private boolean confirmOverwrite(Stage primaryStage, File file) {
@@ -458,19 +599,47 @@ import java.util.stream.Collectors;
         alert.showAndWait();
     }
 
-        //Method that updates the board
+        //Method that updates the board: repaints the cells changed since the last repaint,
+        // plus any showing a value the board rejected
     private void updateBoard() {
-        updatingBoard = true;   
+        SudokuEvents.UpdateBoard event = new SudokuEvents.UpdateBoard();
+        event.begin();
+        updatingBoard = true;
+        int[] repainted = new int[1];
+        board.drainDirtyCells(cell -> {
+            rejectedCells.clear(cell);
+            paintCell(cell / SIZE, cell % SIZE);
+            repainted[0]++;
+        });
+        for (int cell = rejectedCells.nextSetBit(0); cell >= 0; cell = rejectedCells.nextSetBit(cell + 1)) {
+            paintCell(cell / SIZE, cell % SIZE);
+            repainted[0]++;
+        }
+        rejectedCells.clear();
+        updatingBoard = false;
+        if (event.shouldCommit()) {
+            event.cells = repainted[0];
+            event.commit();
+        }
+    }
+
+    // Repaints every cell, for when the whole board is replaced.
+    private void repaintAll() {
+        updatingBoard = true;
         for (int row = 0; row < SIZE; row++) {
             for (int col = 0; col < SIZE; col++) {
-                TextField textField = textFields[row][col];
-                int value = board.getCell(row, col);
-                textField.setText(value > 0 ? String.valueOf(value) : "");
+                paintCell(row, col);
             }
         }
-
+        board.drainDirtyCells(cell -> { });
+        rejectedCells.clear();
         updatingBoard = false;
     }
+
+    private void paintCell(int row, int col) {
+        int value = board.getCell(row, col);
+        textFields[row][col].setText(value > 0 ? String.valueOf(value) : "");
+    }
     //Showing all moves done after loading the file
     private void showAllMoves() {
         List<Move> moves = board.getAllMoves();
@@ -486,6 +655,8 @@ import java.util.stream.Collectors;
 }
 
 public static void main(String[] args) {
+        // -Dsudoku.metrics=json or =prometheus prints counters and latencies on exit.
+        Metrics.installFromSystemProperty();
         launch(args);
     }
 }
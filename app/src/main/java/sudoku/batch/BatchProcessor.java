@@ -0,0 +1,171 @@
+package sudoku.batch;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import sudoku.Board;
+import sudoku.rating.DifficultyRater;
+import sudoku.rating.Rating;
+import sudoku.solver.BitmaskSolver;
+import sudoku.solver.SolveResult;
+import sudoku.solver.Solver;
+
+// Runs validation, solving, hint computation and rating for a stream of puzzles on a work-stealing pool.
+//
+// Every puzzle is validated first, since the other operations need valid givens; the
+// operations only choose what is computed for the valid ones.
+//
+// At most maxInFlight puzzles are being processed or waiting to be emitted at any
+// time; the reading thread blocks when that limit is reached, so a slow sink
+// throttles the input instead of letting results pile up in memory. The sink is
+// always called from one thread at a time, in input order when ordered is set.
+public final class BatchProcessor {
+
+    public enum Operation { SOLVE, HINTS, RATE }
+
+    private final Solver solver;
+    private final DifficultyRater rater = new DifficultyRater();
+    private final Set<Operation> operations;
+    private final int parallelism;
+    private final int maxInFlight;
+    private final boolean ordered;
+
+    // Validates and runs every operation on every core, keeping results in input order.
+    public BatchProcessor() {
+        this(new BitmaskSolver(), EnumSet.allOf(Operation.class),
+                Runtime.getRuntime().availableProcessors(), 4 * Runtime.getRuntime().availableProcessors(), true);
+    }
+
+    public BatchProcessor(Solver solver, Set<Operation> operations, int parallelism, int maxInFlight, boolean ordered) {
+        if (parallelism < 1 || maxInFlight < 1) {
+            throw new IllegalArgumentException("Parallelism and maxInFlight must be positive.");
+        }
+        this.solver = solver;
+        this.operations = EnumSet.copyOf(operations);
+        this.parallelism = parallelism;
+        this.maxInFlight = maxInFlight;
+        this.ordered = ordered;
+    }
+
+    // Processes every puzzle from the iterator and hands each result to the sink.
+    // Rethrows the first exception raised by a task or by the sink.
+    public ThroughputReport run(Iterator<int[]> puzzles, Consumer<BatchResult> sink) {
+        long start = System.nanoTime();
+        Run run = new Run(sink);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long count = 0;
+        try {
+            while (run.failure.get() == null && puzzles.hasNext()) {
+                int[] puzzle = puzzles.next();
+                long index = count++;
+                run.permits.acquireUninterruptibly();
+                pool.execute(() -> run.complete(index, run.process(index, puzzle)));
+            }
+            // Wait until every submitted puzzle has been emitted.
+            run.permits.acquireUninterruptibly(maxInFlight);
+        } finally {
+            pool.shutdown();
+            awaitQuietly(pool);
+        }
+        Throwable failure = run.failure.get();
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        return new ThroughputReport(count, run.invalid.get(), run.unsolved.get(), System.nanoTime() - start, parallelism);
+    }
+
+    private BatchResult compute(long index, int[] puzzle) {
+        if (!Board.isValidBoard(puzzle)) { // also false for an unsupported number of cells
+            return new BatchResult(index, puzzle, false, null, null, null);
+        }
+        SolveResult solveResult = operations.contains(Operation.SOLVE) ? solver.solve(puzzle) : null;
+        List<int[]> hints = operations.contains(Operation.HINTS) ? Board.fromArray(puzzle).getCellsForHints() : null;
+        Rating rating = operations.contains(Operation.RATE) ? rateIfSolvable(puzzle) : null;
+        return new BatchResult(index, puzzle, true, solveResult, hints, rating);
+    }
+
+    // Unsolvable puzzles get no rating rather than failing the whole run.
+    private Rating rateIfSolvable(int[] puzzle) {
+        try {
+            return rater.rate(puzzle);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void awaitQuietly(ForkJoinPool pool) {
+        try {
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Per-run state shared between worker threads.
+    private final class Run {
+        final Consumer<BatchResult> sink;
+        final Semaphore permits = new Semaphore(maxInFlight);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final AtomicLong invalid = new AtomicLong();
+        final AtomicLong unsolved = new AtomicLong();
+        // Results that finished ahead of an earlier puzzle, keyed by index (ordered mode only).
+        final Map<Long, BatchResult> pending = new HashMap<>();
+        long nextIndex;
+
+        Run(Consumer<BatchResult> sink) {
+            this.sink = sink;
+        }
+
+        // Never throws, so every submitted puzzle reaches complete() and returns its permit.
+        BatchResult process(long index, int[] puzzle) {
+            try {
+                return compute(index, puzzle);
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+                return new BatchResult(index, puzzle, false, null, null, null);
+            }
+        }
+
+        void complete(long index, BatchResult result) {
+            if (!result.isValid()) {
+                invalid.incrementAndGet();
+            } else if (result.getSolveResult() != null && !result.getSolveResult().isSolved()) {
+                unsolved.incrementAndGet();
+            }
+            synchronized (this) {
+                if (!ordered) {
+                    emit(result);
+                    return;
+                }
+                pending.put(index, result);
+                for (BatchResult next; (next = pending.remove(nextIndex)) != null; nextIndex++) {
+                    emit(next);
+                }
+            }
+        }
+
+        private void emit(BatchResult result) {
+            try {
+                if (failure.get() == null) {
+                    sink.accept(result);
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                permits.release();
+            }
+        }
+    }
+}
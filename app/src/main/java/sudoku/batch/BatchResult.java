@@ -0,0 +1,53 @@
+package sudoku.batch;
+
+import java.util.List;
+import sudoku.rating.Rating;
+import sudoku.solver.SolveResult;
+
+// Everything the batch pipeline computed for one puzzle.
+public final class BatchResult {
+    private final long index;
+    private final int[] puzzle;
+    private final boolean valid;
+    private final SolveResult solveResult;
+    private final List<int[]> hints;
+    private final Rating rating;
+
+    BatchResult(long index, int[] puzzle, boolean valid, SolveResult solveResult, List<int[]> hints, Rating rating) {
+        this.index = index;
+        this.puzzle = puzzle;
+        this.valid = valid;
+        this.solveResult = solveResult;
+        this.hints = hints;
+        this.rating = rating;
+    }
+
+    // Position of the puzzle in the input, starting at 0.
+    public long getIndex() {
+        return index;
+    }
+
+    public int[] getPuzzle() {
+        return puzzle;
+    }
+
+    // False when the givens contain duplicates; nothing else is computed for such puzzles.
+    public boolean isValid() {
+        return valid;
+    }
+
+    // The solve outcome, or null when solving was not requested or the puzzle is invalid.
+    public SolveResult getSolveResult() {
+        return solveResult;
+    }
+
+    // Cells with a single candidate, or null when hints were not requested or the puzzle is invalid.
+    public List<int[]> getHints() {
+        return hints;
+    }
+
+    // The difficulty rating, or null when rating was not requested or the puzzle has no solution.
+    public Rating getRating() {
+        return rating;
+    }
+}
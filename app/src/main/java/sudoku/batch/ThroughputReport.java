@@ -0,0 +1,50 @@
+package sudoku.batch;
+
+// Summary of one batch run.
+public final class ThroughputReport {
+    private final long puzzles;
+    private final long invalid;
+    private final long unsolved;
+    private final long nanos;
+    private final int parallelism;
+
+    ThroughputReport(long puzzles, long invalid, long unsolved, long nanos, int parallelism) {
+        this.puzzles = puzzles;
+        this.invalid = invalid;
+        this.unsolved = unsolved;
+        this.nanos = nanos;
+        this.parallelism = parallelism;
+    }
+
+    public long getPuzzles() {
+        return puzzles;
+    }
+
+    // Puzzles whose givens contain duplicates.
+    public long getInvalid() {
+        return invalid;
+    }
+
+    // Valid puzzles the solver could not complete (only counted when solving).
+    public long getUnsolved() {
+        return unsolved;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public double getPuzzlesPerSecond() {
+        return nanos == 0 ? 0 : puzzles * 1_000_000_000.0 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d puzzles in %.1f ms on %d threads: %.0f puzzles/s (%d invalid, %d unsolved)",
+                puzzles, nanos / 1_000_000.0, parallelism, getPuzzlesPerSecond(), invalid, unsolved);
+    }
+}
@@ -0,0 +1,138 @@
+package sudoku.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.util.ArrayList;
+import java.util.List;
+import sudoku.Board;
+import sudoku.BoardSnapshot;
+import sudoku.hint.CandidateGrid;
+import sudoku.hint.Hint;
+import sudoku.hint.HintEngine;
+import sudoku.rating.DifficultyRater;
+import sudoku.rating.Rating;
+import sudoku.solver.BitmaskSolver;
+import sudoku.solver.SolveResult;
+import sudoku.solver.Solver;
+
+// Size-bounded cache of solutions, ratings and hints, keyed by the board's Zobrist hash.
+//
+// When many players work on the same puzzle, the first request for a position computes
+// the answer and the rest are lookups. Each entry keeps a snapshot of the cells it was built for, so
+// a hash collision is detected and answered without the cache instead of wrongly.
+// Each result is computed at most once per entry, under that entry's lock only.
+// Thread-safe. Cached results are shared: do not modify a returned solution array.
+public final class AnalysisCache {
+    public static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    private final Cache<Long, Entry> entries;
+    private final Solver solver;
+    private final DifficultyRater rater = new DifficultyRater();
+    private final HintEngine hints = new HintEngine();
+
+    public AnalysisCache() {
+        this(DEFAULT_MAXIMUM_SIZE, new BitmaskSolver());
+    }
+
+    // Keeps at most maximumSize positions, evicting the least recently used.
+    public AnalysisCache(long maximumSize, Solver solver) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Cache size must be positive.");
+        }
+        this.entries = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+        this.solver = solver;
+    }
+
+    public SolveResult solve(Board board) {
+        return entry(board.snapshot()).solve(this);
+    }
+
+    public SolveResult solve(int[] cells) {
+        Solver.checkGrid(cells);
+        return entry(BoardSnapshot.of(cells)).solve(this);
+    }
+
+    // Throws IllegalArgumentException, without caching anything, if the board has no solution.
+    public Rating rate(Board board) {
+        return entry(board.snapshot()).rate(this);
+    }
+
+    // The first placement logic reaches from the board, preceded by the eliminations it
+    // took to get there, easiest deductions first. Empty if logic gets stuck before it
+    // can place anything. Clients that can only place values thus always get a move to
+    // play instead of the same elimination over and over.
+    public List<Hint> hint(Board board) {
+        return entry(board.snapshot()).hint(this);
+    }
+
+    public long size() {
+        return entries.size();
+    }
+
+    public CacheStats stats() {
+        return entries.stats();
+    }
+
+    public void clear() {
+        entries.invalidateAll();
+    }
+
+    private Entry entry(BoardSnapshot cells) {
+        long hash = cells.getZobristHash();
+        Entry entry = entries.getIfPresent(hash);
+        if (entry == null) {
+            Entry created = new Entry(cells);
+            entry = entries.asMap().putIfAbsent(hash, created);
+            if (entry == null) {
+                return created;
+            }
+        }
+        // A different position with the same hash: answer it uncached and keep the resident entry.
+        return entry.cells.equals(cells) ? entry : new Entry(cells);
+    }
+
+    // One position and whatever has been computed for it so far.
+    private static final class Entry {
+        final BoardSnapshot cells;
+        private SolveResult solution;
+        private Rating rating;
+        private List<Hint> hint;
+
+        Entry(BoardSnapshot cells) {
+            this.cells = cells;
+        }
+
+        synchronized SolveResult solve(AnalysisCache cache) {
+            if (solution == null) {
+                solution = cache.solver.solve(cells.toArray());
+            }
+            return solution;
+        }
+
+        synchronized Rating rate(AnalysisCache cache) {
+            if (rating == null) {
+                rating = cache.rater.rate(cells.toArray());
+            }
+            return rating;
+        }
+
+        synchronized List<Hint> hint(AnalysisCache cache) {
+            if (hint == null) {
+                CandidateGrid grid = CandidateGrid.of(cells.toArray());
+                List<Hint> chain = new ArrayList<>();
+                Hint next;
+                while ((next = cache.hints.findHint(grid)) != null) {
+                    chain.add(next);
+                    if (next.isPlacement()) {
+                        break;
+                    }
+                    next.apply(grid);
+                }
+                boolean placed = !chain.isEmpty() && chain.get(chain.size() - 1).isPlacement();
+                hint = placed ? List.copyOf(chain) : List.of();
+            }
+            return hint;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package sudoku.canon;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import sudoku.Board;
+
+// Computes the canonical form of a puzzle: the smallest grid, in row-major order,
+// among all grids reachable by transposition, band and row-within-band permutation,
+// stack and column-within-stack permutation (2 * 6^8 = 3,359,232 arrangements), with
+// digits relabelled 1, 2, 3... in order of first appearance. Two puzzles are the same
+// up to these symmetries exactly when their canonical forms are equal.
+//
+// Empty cells compare above every digit, so the canonical grid packs givens towards
+// the top left. The search is branch and bound: the first row is built column by
+// column for every transposition and starting row, dropping a column ordering as soon
+// as its prefix is larger than the best first row so far; the surviving column
+// orderings then fill the remaining rows a level at a time, keeping only the
+// arrangements that tie with the smallest row at each level.
+//
+// Typical puzzles take tens to hundreds of microseconds. Grids with many identical
+// rows or columns (solved grids, near-empty grids) leave many orderings tied and
+// take longer.
+//
+// Instances keep scratch state and are not thread-safe; use one per thread.
+public final class Canonicalizer {
+    private static final int EMPTY = 10; // Empty cells sort after every digit.
+
+    private final int[][] grids = new int[2][81]; // The puzzle and its transpose, empties as EMPTY.
+    private final int[] best = new int[81];
+    private int bestLength; // Cells of best that belong to the current best prefix.
+    private final List<Candidate> candidates = new ArrayList<>();
+
+    // Phase 1 scratch: the column ordering and labels being built for the first row.
+    private int[] grid;
+    private int firstRow;
+    private final int[] cols = new int[9];
+    private final int[] labels = new int[11]; // labels[v] is the output label of digit v, 0 if unassigned.
+
+    // Phase 2 scratch: the relabelled row being tried.
+    private final int[] row = new int[9];
+    private final int[] rowLabels = new int[11];
+
+    // A partial arrangement whose rows so far equal the best ones: a column ordering,
+    // the source rows used, and the digit labels assigned (labels[0] holds the highest).
+    // Arrangements that only differ in the order their rows were picked continue the
+    // same way, so equality ignores lastRow: its band is the one usedRows leaves open.
+    private static final class Candidate {
+        final int[] grid;
+        final int[] cols;
+        final int lastRow;
+        final int usedRows;
+        final int[] labels;
+
+        Candidate(int[] grid, int[] cols, int lastRow, int usedRows, int[] labels) {
+            this.grid = grid;
+            this.cols = cols;
+            this.lastRow = lastRow;
+            this.usedRows = usedRows;
+            this.labels = labels;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Candidate)) {
+                return false;
+            }
+            Candidate that = (Candidate) other;
+            return grid == that.grid && usedRows == that.usedRows
+                    && Arrays.equals(cols, that.cols) && Arrays.equals(labels, that.labels);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 31 * System.identityHashCode(grid) + usedRows;
+            hash = 31 * hash + Arrays.hashCode(cols);
+            return 31 * hash + Arrays.hashCode(labels);
+        }
+    }
+
+    public static int[] canonicalForm(Board board) {
+        return new Canonicalizer().canonicalize(board.toArray());
+    }
+
+    public static int[] canonicalForm(int[] cells) {
+        return new Canonicalizer().canonicalize(cells);
+    }
+
+    // Returns the canonical form of 81 row-major cells (0 for empty).
+    public int[] canonicalize(int[] cells) {
+        if (cells.length != 81) {
+            throw new IllegalArgumentException("Board must contain exactly 81 cells.");
+        }
+        for (int i = 0; i < 81; i++) {
+            int value = cells[i];
+            if (value < 0 || value > 9) {
+                throw new IllegalArgumentException("Board contains values outside acceptable range (0-9).");
+            }
+            grids[0][i] = value == 0 ? EMPTY : value;
+            grids[1][i % 9 * 9 + i / 9] = grids[0][i];
+        }
+        int givens = 0;
+        int given = 0;
+        for (int value : cells) {
+            if (value != 0) {
+                givens++;
+                given = value;
+            }
+        }
+        // Every arrangement ties on these, so answer them directly: an empty grid, or the
+        // single given moved to the top left and labelled 1.
+        if (givens < 2) {
+            int[] canonical = new int[81];
+            canonical[0] = given == 0 ? 0 : 1;
+            return canonical;
+        }
+        bestLength = 0;
+        candidates.clear();
+        for (int[] g : grids) {
+            grid = g;
+            for (int row = 0; row < 9; row++) {
+                firstRow = row;
+                Arrays.fill(labels, 0);
+                labels[EMPTY] = EMPTY;
+                searchColumns(0, 0, 1);
+            }
+        }
+        List<Candidate> level = new ArrayList<>(candidates);
+        for (int depth = 1; depth < 9; depth++) {
+            level = extend(level, depth);
+        }
+        int[] canonical = new int[81];
+        for (int i = 0; i < 81; i++) {
+            canonical[i] = best[i] == EMPTY ? 0 : best[i];
+        }
+        return canonical;
+    }
+
+    // Chooses the source column for output column pos of the first row.
+    private void searchColumns(int pos, int usedCols, int nextLabel) {
+        if (pos == 9) {
+            int[] finalLabels = labels.clone();
+            finalLabels[0] = nextLabel - 1; // Highest label used, carried into phase 2.
+            candidates.add(new Candidate(grid, cols.clone(), firstRow, 1 << firstRow, finalLabels));
+            return;
+        }
+        int from;
+        int to;
+        if (pos % 3 == 0) {
+            from = 0;
+            to = 9;
+        } else {
+            from = cols[pos - 1] / 3 * 3;
+            to = from + 3;
+        }
+        for (int col = from; col < to; col++) {
+            // A new stack must start in a stack that has not been used yet.
+            if ((usedCols & (1 << col)) != 0 || (pos % 3 == 0 && (usedCols & (7 << (col / 3 * 3))) != 0)) {
+                continue;
+            }
+            int value = grid[firstRow * 9 + col];
+            boolean fresh = labels[value] == 0;
+            int out = fresh ? nextLabel : labels[value];
+            if (pos < bestLength) {
+                if (out > best[pos]) {
+                    continue;
+                }
+                if (out < best[pos]) {
+                    bestLength = pos;
+                    candidates.clear();
+                }
+            }
+            if (pos >= bestLength) {
+                best[pos] = out;
+                bestLength = pos + 1;
+            }
+            if (fresh) {
+                labels[value] = nextLabel;
+            }
+            cols[pos] = col;
+            searchColumns(pos + 1, usedCols | (1 << col), fresh ? nextLabel + 1 : nextLabel);
+            if (fresh) {
+                labels[value] = 0;
+            }
+        }
+    }
+
+    // Fills output row depth for every candidate, keeping only the extensions whose
+    // row equals the smallest one found. Working a level at a time means every
+    // candidate is compared against the true minimum of the level, not a provisional one.
+    // Equal extensions are kept once; without that, the ties of a near-empty grid
+    // multiply into millions of candidates.
+    private List<Candidate> extend(List<Candidate> level, int depth) {
+        Set<Candidate> next = new HashSet<>();
+        int base = depth * 9;
+        bestLength = base;
+        for (Candidate candidate : level) {
+            int from;
+            int to;
+            if (depth % 3 == 0) {
+                from = 0;
+                to = 9;
+            } else {
+                from = candidate.lastRow / 3 * 3;
+                to = from + 3;
+            }
+            for (int source = from; source < to; source++) {
+                // A new band must start in a band that has not been used yet.
+                if ((candidate.usedRows & (1 << source)) != 0
+                        || (depth % 3 == 0 && (candidate.usedRows & (7 << (source / 3 * 3))) != 0)) {
+                    continue;
+                }
+                int order = relabelRow(candidate, source, base);
+                if (order > 0) {
+                    continue;
+                }
+                if (order < 0) {
+                    next.clear();
+                    System.arraycopy(row, 0, best, base, 9);
+                    bestLength = base + 9;
+                }
+                next.add(new Candidate(candidate.grid, candidate.cols, source,
+                        candidate.usedRows | (1 << source), rowLabels.clone()));
+            }
+        }
+        return new ArrayList<>(next);
+    }
+
+    // Relabels a source row into the row scratch and compares it with the best row at
+    // base: negative if smaller (or no best row yet), 0 if equal, positive if larger.
+    // Stops at the first larger cell.
+    private int relabelRow(Candidate candidate, int source, int base) {
+        System.arraycopy(candidate.labels, 0, rowLabels, 0, 11);
+        int order = bestLength > base ? 0 : -1;
+        for (int j = 0; j < 9; j++) {
+            int value = candidate.grid[source * 9 + candidate.cols[j]];
+            int out = rowLabels[value];
+            if (out == 0) {
+                out = ++rowLabels[0];
+                rowLabels[value] = out;
+            }
+            row[j] = out;
+            if (order == 0 && out != best[base + j]) {
+                if (out > best[base + j]) {
+                    return 1;
+                }
+                order = -1;
+            }
+        }
+        return order;
+    }
+}
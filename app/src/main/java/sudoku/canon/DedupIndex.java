@@ -0,0 +1,70 @@
+package sudoku.canon;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Remembers puzzles by canonical form, so a puzzle is recognised again after any
+// transposition, band/row/stack/column permutation or digit relabelling.
+//
+// Each lookup canonicalizes once and then costs one hash probe, so deduplicating a
+// stream is linear in its length. Thread-safe: parallel streams can filter through
+// the same index, e.g. puzzles.filter(index::add).
+public final class DedupIndex {
+    private final Map<Key, Long> firstSeen = new ConcurrentHashMap<>();
+    private final AtomicLong calls = new AtomicLong();
+    private final ThreadLocal<Canonicalizer> canonicalizers = ThreadLocal.withInitial(Canonicalizer::new);
+
+    // Adds the puzzle; returns true if no equivalent puzzle was indexed before.
+    // Puzzles added this way get ids in call order, starting at 0.
+    public boolean add(int[] puzzle) {
+        return addIfAbsent(puzzle, calls.getAndIncrement()) < 0;
+    }
+
+    // Adds the puzzle under id unless an equivalent one is already indexed, in which
+    // case that puzzle's id is returned instead; returns -1 if the puzzle is new.
+    public long addIfAbsent(int[] puzzle, long id) {
+        Long previous = firstSeen.putIfAbsent(keyOf(puzzle), id);
+        return previous == null ? -1 : previous;
+    }
+
+    public boolean contains(int[] puzzle) {
+        return firstSeen.containsKey(keyOf(puzzle));
+    }
+
+    public int size() {
+        return firstSeen.size();
+    }
+
+    private Key keyOf(int[] puzzle) {
+        return new Key(canonicalizers.get().canonicalize(puzzle));
+    }
+
+    // The canonical cells packed 4 bits each into six longs (16 cells per word).
+    private static final class Key {
+        private final long[] words = new long[6];
+        private final int hash;
+
+        Key(int[] cells) {
+            for (int i = 0; i < 81; i++) {
+                words[i >> 4] |= (long) cells[i] << ((i & 15) << 2);
+            }
+            long h = 0;
+            for (long word : words) {
+                h = h * 0x9E3779B97F4A7C15L + word;
+            }
+            hash = (int) (h ^ (h >>> 32));
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && Arrays.equals(words, ((Key) other).words);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package sudoku.cli;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import sudoku.Board;
+import sudoku.generator.GeneratedPuzzle;
+import sudoku.generator.PuzzleGenerator;
+import sudoku.io.PuzzleReader;
+import sudoku.io.PuzzleStore;
+import sudoku.metrics.Metrics;
+import sudoku.rating.Difficulty;
+import sudoku.rating.DifficultyRater;
+import sudoku.solver.BitmaskSolver;
+import sudoku.solver.SolveResult;
+
+// Headless command-line tool. Never touches JavaFX or the media classes, so it starts
+// in a fraction of the time the game takes; see runCli and cliArchive in build.gradle
+// for running it with an AppCDS archive.
+//
+//   solve    [file...]                      one solved grid per puzzle
+//   validate [file...]                      valid, invalid, unsolvable or multiple per puzzle
+//   rate     [file...]                      difficulty and score per puzzle
+//   generate [--count n] [--seed s] [--difficulty d]
+//   convert  [--from text|store] [--to line|grid|store] [--output path] [file...]
+//
+// Text input uses any layout PuzzleReader accepts; with no file, or "-", it reads stdin.
+// Results go to stdout one line per puzzle (grids as 81 digits, 0 for empty), in input
+// order. Exit status: 0 if every puzzle was fine, 1 if some were not, 2 on bad usage
+// or unreadable input.
+public final class SudokuCli {
+    static final int OK = 0;
+    static final int FAILED = 1;
+    static final int USAGE = 2;
+
+    private static final String USAGE_TEXT = String.join("\n",
+            "usage: sudoku <command> [options] [file...]",
+            "  solve    [file...]",
+            "  validate [file...]",
+            "  rate     [file...]",
+            "  generate [--count n] [--seed s] [--difficulty easy|medium|hard|extreme]",
+            "  convert  [--from text|store] [--to line|grid|store] [--output path] [file...]",
+            "Files default to stdin; \"-\" also means stdin.");
+
+    private final InputStream stdin;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    SudokuCli(InputStream stdin, PrintStream out, PrintStream err) {
+        this.stdin = stdin;
+        this.out = out;
+        this.err = err;
+    }
+
+    public static void main(String[] args) {
+        Metrics.installFromSystemProperty();
+        PrintStream out = new PrintStream(new BufferedOutputStream(System.out, 1 << 16), false);
+        int status = new SudokuCli(System.in, out, System.err).run(args);
+        out.flush();
+        System.exit(status);
+    }
+
+    // Runs one command and returns the exit status.
+    int run(String[] args) {
+        if (args.length == 0) {
+            err.println(USAGE_TEXT);
+            return USAGE;
+        }
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            err.println("sudoku: " + e.getMessage());
+            err.println(USAGE_TEXT);
+            return USAGE;
+        }
+        try {
+            switch (options.command) {
+                case "solve":
+                    return solve(options);
+                case "validate":
+                    return validate(options);
+                case "rate":
+                    return rate(options);
+                case "generate":
+                    return generate(options);
+                case "convert":
+                    return convert(options);
+                default:
+                    err.println("sudoku: unknown command '" + options.command + "'");
+                    err.println(USAGE_TEXT);
+                    return USAGE;
+            }
+        } catch (IOException | UncheckedIOException | IllegalArgumentException e) {
+            out.flush();
+            err.println("sudoku: " + e.getMessage());
+            return USAGE;
+        } finally {
+            out.flush();
+        }
+    }
+
+    private int solve(Options options) throws IOException {
+        options.expectOnly();
+        BitmaskSolver solver = new BitmaskSolver();
+        boolean allSolved = true;
+        for (Iterator<int[]> puzzles = options.puzzles(stdin); puzzles.hasNext(); ) {
+            int[] puzzle = puzzles.next();
+            if (!Board.isValidBoard(puzzle)) {
+                out.println("invalid");
+                allSolved = false;
+                continue;
+            }
+            SolveResult result = solver.solve(puzzle);
+            if (result.isSolved()) {
+                out.println(line(result.getSolution()));
+            } else {
+                out.println("unsolvable");
+                allSolved = false;
+            }
+        }
+        return allSolved ? OK : FAILED;
+    }
+
+    private int validate(Options options) throws IOException {
+        options.expectOnly();
+        BitmaskSolver solver = new BitmaskSolver();
+        boolean allValid = true;
+        for (Iterator<int[]> puzzles = options.puzzles(stdin); puzzles.hasNext(); ) {
+            int[] puzzle = puzzles.next();
+            String verdict;
+            if (!Board.isValidBoard(puzzle)) {
+                verdict = "invalid";
+            } else {
+                int solutions = solver.countSolutions(puzzle, 2);
+                verdict = solutions == 1 ? "valid" : solutions == 0 ? "unsolvable" : "multiple";
+            }
+            allValid &= verdict.equals("valid");
+            out.println(verdict);
+        }
+        return allValid ? OK : FAILED;
+    }
+
+    private int rate(Options options) throws IOException {
+        options.expectOnly();
+        DifficultyRater rater = new DifficultyRater();
+        boolean allRated = true;
+        for (Iterator<int[]> puzzles = options.puzzles(stdin); puzzles.hasNext(); ) {
+            int[] puzzle = puzzles.next();
+            if (!Board.isValidBoard(puzzle)) {
+                out.println("invalid");
+                allRated = false;
+                continue;
+            }
+            try {
+                out.println(rater.rate(puzzle));
+            } catch (IllegalArgumentException e) {
+                out.println("unsolvable");
+                allRated = false;
+            }
+        }
+        return allRated ? OK : FAILED;
+    }
+
+    private int generate(Options options) {
+        options.expectOnly("--count", "--seed", "--difficulty");
+        if (!options.files.isEmpty()) {
+            throw new IllegalArgumentException("generate takes no input files");
+        }
+        long count = options.longOption("--count", 1);
+        long seed = options.longOption("--seed", System.nanoTime());
+        String target = options.option("--difficulty", null);
+        PuzzleGenerator generator = new PuzzleGenerator();
+        if (target == null) {
+            for (long i = 0; i < count; i++) {
+                out.println(line(generator.generate(seed + i).getPuzzle()));
+            }
+        } else {
+            Difficulty difficulty = difficulty(target);
+            generator.stream(seed, difficulty, count)
+                    .map(GeneratedPuzzle::getPuzzle)
+                    .forEachOrdered(puzzle -> out.println(line(puzzle)));
+        }
+        return OK;
+    }
+
+    private int convert(Options options) throws IOException {
+        options.expectOnly("--from", "--to", "--output");
+        String from = options.option("--from", "text");
+        String to = options.option("--to", "line");
+        String output = options.option("--output", null);
+        Iterator<int[]> puzzles;
+        List<PuzzleStore> stores = new ArrayList<>();
+        try {
+            if (from.equals("store")) {
+                if (options.files.isEmpty() || options.files.contains("-")) {
+                    throw new IllegalArgumentException("--from store needs store files, not stdin");
+                }
+                for (String file : options.files) {
+                    stores.add(PuzzleStore.open(Path.of(file)));
+                }
+                puzzles = storeIterator(stores);
+            } else if (from.equals("text")) {
+                puzzles = options.puzzles(stdin);
+            } else {
+                throw new IllegalArgumentException("unknown input format '" + from + "'");
+            }
+
+            switch (to) {
+                case "store":
+                    if (output == null) {
+                        throw new IllegalArgumentException("--to store needs --output");
+                    }
+                    PuzzleStore.write(Path.of(output), puzzles);
+                    return OK;
+                case "line":
+                case "grid":
+                    PrintStream target = output == null ? out
+                            : new PrintStream(new BufferedOutputStream(Files.newOutputStream(Path.of(output)), 1 << 16), false);
+                    try {
+                        while (puzzles.hasNext()) {
+                            int[] puzzle = puzzles.next();
+                            if (to.equals("line")) {
+                                target.println(line(puzzle));
+                            } else {
+                                target.print(grid(puzzle));
+                                target.println();
+                            }
+                        }
+                    } finally {
+                        if (target != out) {
+                            target.close();
+                        }
+                    }
+                    return OK;
+                default:
+                    throw new IllegalArgumentException("unknown output format '" + to + "'");
+            }
+        } finally {
+            for (PuzzleStore store : stores) {
+                store.close();
+            }
+        }
+    }
+
+    private static Iterator<int[]> storeIterator(List<PuzzleStore> stores) {
+        return new Iterator<int[]>() {
+            private int store;
+            private long index;
+
+            @Override
+            public boolean hasNext() {
+                while (store < stores.size() && index == stores.get(store).size()) {
+                    store++;
+                    index = 0;
+                }
+                return store < stores.size();
+            }
+
+            @Override
+            public int[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return stores.get(store).get(index++);
+            }
+        };
+    }
+
+    private static Difficulty difficulty(String name) {
+        try {
+            return Difficulty.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown difficulty '" + name + "'");
+        }
+    }
+
+    // 81 digits, 0 for empty.
+    static String line(int[] cells) {
+        char[] chars = new char[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            chars[i] = (char) ('0' + cells[i]);
+        }
+        return new String(chars);
+    }
+
+    // The whitespace-separated layout of the files in puzzles/, as Board.toString prints it.
+    static String grid(int[] cells) {
+        StringBuilder sb = new StringBuilder(2 * cells.length);
+        for (int i = 0; i < cells.length; i++) {
+            sb.append((char) ('0' + cells[i]));
+            sb.append(i % 9 == 8 ? '\n' : ' ');
+        }
+        return sb.toString();
+    }
+
+    // The command, its --name value options and its input files.
+    private static final class Options {
+        final String command;
+        final List<String> names = new ArrayList<>();
+        final List<String> values = new ArrayList<>();
+        final List<String> files = new ArrayList<>();
+
+        private Options(String command) {
+            this.command = command;
+        }
+
+        static Options parse(String[] args) {
+            Options options = new Options(args[0]);
+            for (int i = 1; i < args.length; i++) {
+                String arg = args[i];
+                if (arg.startsWith("--")) {
+                    if (i + 1 == args.length) {
+                        throw new IllegalArgumentException("option " + arg + " needs a value");
+                    }
+                    options.names.add(arg);
+                    options.values.add(args[++i]);
+                } else {
+                    options.files.add(arg);
+                }
+            }
+            return options;
+        }
+
+        // Rejects any option not in the list.
+        void expectOnly(String... allowed) {
+            for (String name : names) {
+                if (!List.of(allowed).contains(name)) {
+                    throw new IllegalArgumentException(command + " does not take " + name);
+                }
+            }
+        }
+
+        String option(String name, String fallback) {
+            int i = names.lastIndexOf(name);
+            return i < 0 ? fallback : values.get(i);
+        }
+
+        long longOption(String name, long fallback) {
+            String value = option(name, null);
+            if (value == null) {
+                return fallback;
+            }
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(name + " needs a number, not '" + value + "'");
+            }
+        }
+
+        // Puzzles from every input file in turn, or from stdin when there are none.
+        Iterator<int[]> puzzles(InputStream stdin) throws IOException {
+            List<String> inputs = files.isEmpty() ? List.of("-") : files;
+            return new Iterator<int[]>() {
+                private int next;
+                private PuzzleReader reader;
+
+                @Override
+                public boolean hasNext() {
+                    try {
+                        while (reader == null || !reader.hasNext()) {
+                            if (reader != null) {
+                                reader.close();
+                                reader = null;
+                            }
+                            if (next == inputs.size()) {
+                                return false;
+                            }
+                            String input = inputs.get(next++);
+                            reader = input.equals("-") ? new PuzzleReader(stdin) : PuzzleReader.open(Path.of(input));
+                        }
+                        return true;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+
+                @Override
+                public int[] next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return reader.next();
+                }
+            };
+        }
+    }
+}
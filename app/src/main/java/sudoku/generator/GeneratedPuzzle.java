@@ -0,0 +1,48 @@
+package sudoku.generator;
+
+import sudoku.rating.Difficulty;
+
+// A generated puzzle with its unique solution, its grade and the seed that reproduces it.
+public final class GeneratedPuzzle {
+    private final int[] puzzle;
+    private final int[] solution;
+    private final Difficulty difficulty;
+    private final long seed;
+
+    GeneratedPuzzle(int[] puzzle, int[] solution, Difficulty difficulty, long seed) {
+        this.puzzle = puzzle;
+        this.solution = solution;
+        this.difficulty = difficulty;
+        this.seed = seed;
+    }
+
+    public int[] getPuzzle() {
+        return puzzle;
+    }
+
+    public int[] getSolution() {
+        return solution;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    // The seed that reproduces this puzzle through the method that made it: generate(getSeed())
+    // for a puzzle from generate(long), generate(getSeed(), getDifficulty()) for one from
+    // generate(long, Difficulty) or stream(). Targeted puzzles keep a clue floor, so
+    // generate(long) with their seed gives a different, minimal puzzle.
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getClueCount() {
+        int clues = 0;
+        for (int value : puzzle) {
+            if (value != 0) {
+                clues++;
+            }
+        }
+        return clues;
+    }
+}
@@ -0,0 +1,127 @@
+package sudoku.generator;
+
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import sudoku.rating.Difficulty;
+import sudoku.rating.DifficultyRater;
+import sudoku.solver.BitmaskSolver;
+
+// Generates puzzles with exactly one solution.
+//
+// Starts from a random filled grid and removes clues in random order, putting a
+// clue back whenever the puzzle would stop being unique. The uniqueness check
+// stops at the second solution it finds. Everything is driven by a seed, so the
+// same seed always gives the same puzzle, whichever thread generates it.
+// Instances hold no per-call state and can be shared between threads.
+public final class PuzzleGenerator {
+    // Maximum number of fresh grids tried when aiming for a difficulty band.
+    private static final int MAX_ATTEMPTS = 1000;
+
+    private static final DifficultyRater RATER = new DifficultyRater();
+
+    private final BitmaskSolver solver = new BitmaskSolver();
+
+    // Generates a minimal puzzle (no clue can be removed without losing uniqueness).
+    public GeneratedPuzzle generate(long seed) {
+        return attempt(seed, 0);
+    }
+
+    // Generates a puzzle graded in the target band. The returned puzzle's seed reproduces
+    // it when passed back in with the same target.
+    public GeneratedPuzzle generate(long seed, Difficulty target) {
+        for (int i = 0; i < MAX_ATTEMPTS; i++) {
+            GeneratedPuzzle puzzle = attempt(i == 0 ? seed : mix(seed, i), minClues(target));
+            if (puzzle.getDifficulty() == target) {
+                return puzzle;
+            }
+        }
+        throw new IllegalStateException("No " + target + " puzzle found after " + MAX_ATTEMPTS + " attempts.");
+    }
+
+    // Generates count puzzles in parallel; puzzle i is always the one derived from (seed, i).
+    public Stream<GeneratedPuzzle> stream(long seed, Difficulty target, long count) {
+        return LongStream.range(0, count).parallel().mapToObj(i -> generate(mix(seed, i + 1), target));
+    }
+
+    private GeneratedPuzzle attempt(long seed, int minClues) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] solution = randomSolution(random);
+        int[] puzzle = removeClues(solution, minClues, random);
+        return new GeneratedPuzzle(puzzle, solution, grade(puzzle), seed);
+    }
+
+    // Fills the three diagonal boxes (which never constrain each other) with random
+    // permutations and lets the solver complete the grid.
+    private int[] randomSolution(SplittableRandom random) {
+        int[] cells = new int[81];
+        for (int box = 0; box < 9; box += 4) {
+            int[] digits = shuffled(9, random);
+            int startRow = box / 3 * 3;
+            int startCol = box % 3 * 3;
+            for (int i = 0; i < 9; i++) {
+                cells[(startRow + i / 3) * 9 + startCol + i % 3] = digits[i] + 1;
+            }
+        }
+        return solver.solve(cells).getSolution();
+    }
+
+    private int[] removeClues(int[] solution, int minClues, SplittableRandom random) {
+        int[] puzzle = solution.clone();
+        int clues = 81;
+        for (int cell : shuffled(81, random)) {
+            if (clues <= minClues) {
+                break;
+            }
+            int value = puzzle[cell];
+            puzzle[cell] = 0;
+            if (solver.countSolutions(puzzle, 2) == 1) {
+                clues--;
+            } else {
+                puzzle[cell] = value;
+            }
+        }
+        return puzzle;
+    }
+
+    // Grades a puzzle with the shared DifficultyRater.
+    public static Difficulty grade(int[] puzzle) {
+        return RATER.rate(puzzle).getDifficulty();
+    }
+
+    // Lower bound on clues kept while removing, so easier bands keep more givens.
+    private static int minClues(Difficulty target) {
+        switch (target) {
+            case EASY:
+                return 36;
+            case MEDIUM:
+                return 32;
+            case HARD:
+                return 24;
+            default:
+                return 0;
+        }
+    }
+
+    private static int[] shuffled(int n, SplittableRandom random) {
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+        return values;
+    }
+
+    // Derives an independent seed for the i-th puzzle (SplitMix64 finalizer).
+    static long mix(long seed, long i) {
+        long z = seed + i * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
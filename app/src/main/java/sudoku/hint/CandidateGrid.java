@@ -0,0 +1,108 @@
+package sudoku.hint;
+
+import java.util.Arrays;
+import sudoku.Board;
+import sudoku.Geometry;
+
+// Pencil-mark grid shared by all hint techniques.
+// Holds the placed values plus, for each empty cell, a bitmask of the values still
+// possible there (bit v - 1 for value v). Placing a value clears it from all peers.
+public final class CandidateGrid {
+    final Geometry geometry;
+    final int size;
+    // Units 0..size-1 are rows, then columns, then boxes; each lists its cells.
+    final int[][] units;
+    // The row, column and box unit of each cell.
+    final int[][] unitsOf;
+    final int[] values;
+    final int[] candidates;
+
+    private CandidateGrid(Geometry geometry) {
+        this.geometry = geometry;
+        this.size = geometry.getSize();
+        this.units = geometry.units();
+        this.unitsOf = geometry.unitsOf();
+        this.values = new int[geometry.getCellCount()];
+        this.candidates = new int[values.length];
+    }
+
+    public static CandidateGrid of(Board board) {
+        CandidateGrid grid = new CandidateGrid(board.getGeometry());
+        int size = grid.size;
+        for (int cell = 0; cell < grid.values.length; cell++) {
+            int value = board.getCell(cell / size, cell % size);
+            grid.values[cell] = value;
+            grid.candidates[cell] = value == 0 ? board.getCandidateMask(cell / size, cell % size) : 0;
+        }
+        return grid;
+    }
+
+    // Builds the grid from row-major cells; their count gives the geometry.
+    public static CandidateGrid of(int[] cells) {
+        CandidateGrid grid = new CandidateGrid(Geometry.forCellCount(cells.length));
+        Arrays.fill(grid.candidates, grid.geometry.getAllValues());
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] != 0) {
+                grid.place(cell, cells[cell]);
+            }
+        }
+        return grid;
+    }
+
+    public CandidateGrid copy() {
+        CandidateGrid copy = new CandidateGrid(geometry);
+        System.arraycopy(values, 0, copy.values, 0, values.length);
+        System.arraycopy(candidates, 0, copy.candidates, 0, candidates.length);
+        return copy;
+    }
+
+    public Geometry getGeometry() {
+        return geometry;
+    }
+
+    public int getValue(int cell) {
+        return values[cell];
+    }
+
+    public int getCandidates(int cell) {
+        return candidates[cell];
+    }
+
+    // Places a value and removes it from the candidates of every peer.
+    public void place(int cell, int value) {
+        int clear = ~(1 << (value - 1));
+        values[cell] = value;
+        candidates[cell] = 0;
+        for (int unit : unitsOf[cell]) {
+            for (int peer : units[unit]) {
+                candidates[peer] &= clear;
+            }
+        }
+    }
+
+    // Removes candidates from a cell; returns true if anything changed.
+    public boolean eliminate(int cell, int mask) {
+        int before = candidates[cell];
+        candidates[cell] &= ~mask;
+        return candidates[cell] != before;
+    }
+
+    public boolean isSolved() {
+        for (int value : values) {
+            if (value == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // True when some empty cell has run out of candidates.
+    public boolean hasContradiction() {
+        for (int cell = 0; cell < values.length; cell++) {
+            if (values[cell] == 0 && candidates[cell] == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
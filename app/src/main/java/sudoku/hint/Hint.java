@@ -0,0 +1,82 @@
+package sudoku.hint;
+
+import java.util.function.Supplier;
+
+// One logical deduction: either a value to place or candidates to remove, with the reasoning.
+public final class Hint {
+    private final Technique technique;
+    private final int cell;
+    private final int value;
+    private final int[] eliminations;
+    private final int size; // Width of the grid the hint was found on.
+    // Built only when asked for, so batch grading does not pay for the text.
+    private final Supplier<String> reasoning;
+
+    private Hint(Technique technique, int size, int cell, int value, int[] eliminations, Supplier<String> reasoning) {
+        this.technique = technique;
+        this.size = size;
+        this.cell = cell;
+        this.value = value;
+        this.eliminations = eliminations;
+        this.reasoning = reasoning;
+    }
+
+    static Hint placement(Technique technique, int size, int cell, int value, Supplier<String> reasoning) {
+        return new Hint(technique, size, cell, value, null, reasoning);
+    }
+
+    // eliminations holds, per cell, the mask of candidates removed (bit v - 1 for value v).
+    static Hint elimination(Technique technique, int size, int[] eliminations, Supplier<String> reasoning) {
+        return new Hint(technique, size, -1, 0, eliminations, reasoning);
+    }
+
+    public Technique getTechnique() {
+        return technique;
+    }
+
+    public boolean isPlacement() {
+        return eliminations == null;
+    }
+
+    // Row of the placed cell, or -1 for an elimination hint.
+    public int getRow() {
+        return cell < 0 ? -1 : cell / size;
+    }
+
+    // Column of the placed cell, or -1 for an elimination hint.
+    public int getCol() {
+        return cell < 0 ? -1 : cell % size;
+    }
+
+    // Value to place, or 0 for an elimination hint.
+    public int getValue() {
+        return value;
+    }
+
+    // Candidates removed from a cell as a bitmask; always 0 for a placement hint.
+    public int getEliminations(int row, int col) {
+        return eliminations == null ? 0 : eliminations[row * size + col];
+    }
+
+    public String getReasoning() {
+        return reasoning.get();
+    }
+
+    // Applies the deduction to a candidate grid.
+    public void apply(CandidateGrid grid) {
+        if (isPlacement()) {
+            grid.place(cell, value);
+            return;
+        }
+        for (int i = 0; i < eliminations.length; i++) {
+            if (eliminations[i] != 0) {
+                grid.eliminate(i, eliminations[i]);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return technique.getDisplayName() + ": " + getReasoning();
+    }
+}
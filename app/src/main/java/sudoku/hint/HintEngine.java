@@ -0,0 +1,468 @@
+package sudoku.hint;
+
+import sudoku.Board;
+import sudoku.Geometry;
+import sudoku.metrics.Metrics;
+import sudoku.metrics.SudokuEvents;
+import sudoku.metrics.Timer;
+
+// Finds the next logical deduction on a board, trying techniques from easiest to hardest:
+// naked/hidden singles, naked/hidden pairs, pointing pairs, box/line reduction,
+// naked/hidden triples, X-Wing and Swordfish.
+//
+// nextHint(Board) keeps a candidate grid for the last board it saw. When the board
+// changes by new placements the grid is updated in place (keeping eliminations found
+// earlier); only undos or contradicting moves force a rebuild. Elimination hints are
+// applied to that grid as they are returned, so repeated calls on an unchanged board
+// walk forward until they reach a placement, which is then returned again until the
+// board changes.
+public final class HintEngine {
+    // COMBOS[n][k] lists every k-element subset of {0..N-1} as a bitmask, for k = 2 and 3,
+    // where N = n * n is the size of a grid with n x n boxes.
+    private static final int[][][] COMBOS = new int[Geometry.MAX_BOX_SIZE + 1][4][];
+
+    static {
+        for (int n = Geometry.MIN_BOX_SIZE; n <= Geometry.MAX_BOX_SIZE; n++) {
+            int size = n * n;
+            int[] pairs = new int[size * (size - 1) / 2];
+            int[] triples = new int[size * (size - 1) * (size - 2) / 6];
+            int pairCount = 0;
+            int tripleCount = 0;
+            for (int a = 0; a < size; a++) {
+                for (int b = a + 1; b < size; b++) {
+                    pairs[pairCount++] = 1 << a | 1 << b;
+                    for (int c = b + 1; c < size; c++) {
+                        triples[tripleCount++] = 1 << a | 1 << b | 1 << c;
+                    }
+                }
+            }
+            COMBOS[n][2] = pairs;
+            COMBOS[n][3] = triples;
+        }
+    }
+
+    private Board cachedBoard;
+    private long cachedVersion;
+    private CandidateGrid cachedGrid;
+    private Hint cachedPlacement;
+
+    // Returns the next deduction for the board, or null if none of the techniques applies.
+    public synchronized Hint nextHint(Board board) {
+        long start = Metrics.startTimer();
+        SudokuEvents.Hint event = new SudokuEvents.Hint();
+        event.begin();
+        Hint hint = next(board);
+        Metrics.stopTimer(Timer.HINT, start);
+        if (event.shouldCommit()) {
+            event.technique = hint == null ? null : hint.getTechnique().toString();
+            event.cells = hint == null ? 0 : 1;
+            event.commit();
+        }
+        return hint;
+    }
+
+    private Hint next(Board board) {
+        if (board != cachedBoard || cachedGrid == null) {
+            rebuild(board);
+        } else if (board.getVersion() != cachedVersion) {
+            sync(board);
+        } else if (cachedPlacement != null) {
+            return cachedPlacement;
+        }
+        cachedVersion = board.getVersion();
+        Hint hint = findHint(cachedGrid);
+        if (hint != null) {
+            if (hint.isPlacement()) {
+                cachedPlacement = hint;
+            } else {
+                hint.apply(cachedGrid);
+            }
+        }
+        return hint;
+    }
+
+    private void rebuild(Board board) {
+        cachedBoard = board;
+        cachedGrid = CandidateGrid.of(board);
+        cachedPlacement = null;
+    }
+
+    // Applies new placements to the cached grid; rebuilds if a cell was cleared or changed.
+    private void sync(Board board) {
+        cachedPlacement = null;
+        int size = board.getSize();
+        for (int cell = 0; cell < cachedGrid.values.length; cell++) {
+            int value = board.getCell(cell / size, cell % size);
+            int known = cachedGrid.values[cell];
+            if (value == known) {
+                continue;
+            }
+            if (known != 0 || (cachedGrid.candidates[cell] & 1 << (value - 1)) == 0) {
+                rebuild(board);
+                return;
+            }
+            cachedGrid.place(cell, value);
+        }
+    }
+
+    // Finds the easiest deduction on a grid without modifying it.
+    public Hint findHint(CandidateGrid grid) {
+        int single = -1;
+        for (int cell = 0; cell < grid.values.length; cell++) {
+            int count = grid.values[cell] == 0 ? Integer.bitCount(grid.candidates[cell]) : -1;
+            if (count == 0) {
+                return null; // contradiction: an empty cell has no candidates left
+            }
+            if (count == 1 && single < 0) {
+                single = cell;
+            }
+        }
+        Hint hint = single >= 0 ? nakedSingle(grid, single) : null;
+        if (hint == null) {
+            hint = hiddenSingle(grid);
+        }
+        if (hint == null) {
+            hint = nakedSubset(grid, 2);
+        }
+        if (hint == null) {
+            hint = hiddenSubset(grid, 2);
+        }
+        if (hint == null) {
+            hint = pointing(grid);
+        }
+        if (hint == null) {
+            hint = boxLineReduction(grid);
+        }
+        if (hint == null) {
+            hint = nakedSubset(grid, 3);
+        }
+        if (hint == null) {
+            hint = hiddenSubset(grid, 3);
+        }
+        if (hint == null) {
+            hint = fish(grid, 2);
+        }
+        if (hint == null) {
+            hint = fish(grid, 3);
+        }
+        return hint;
+    }
+
+    private static Hint nakedSingle(CandidateGrid grid, int cell) {
+        int value = Integer.numberOfTrailingZeros(grid.candidates[cell]) + 1;
+        int size = grid.size;
+        return Hint.placement(Technique.NAKED_SINGLE, size, cell, value,
+                () -> "cell " + cellName(cell, size) + " has only one candidate left: " + value);
+    }
+
+    private static Hint hiddenSingle(CandidateGrid grid) {
+        int size = grid.size;
+        for (int u = 0; u < grid.units.length; u++) {
+            int once = 0;
+            int twice = 0;
+            for (int cell : grid.units[u]) {
+                int mask = grid.candidates[cell];
+                twice |= once & mask;
+                once |= mask;
+            }
+            int singles = once & ~twice;
+            if (singles == 0) {
+                continue;
+            }
+            int bit = singles & -singles;
+            for (int cell : grid.units[u]) {
+                if ((grid.candidates[cell] & bit) != 0) {
+                    int value = Integer.numberOfTrailingZeros(bit) + 1;
+                    int unitIndex = u;
+                    return Hint.placement(Technique.HIDDEN_SINGLE, size, cell, value,
+                            () -> value + " fits in only one place in " + unitName(unitIndex, size) + ": cell " + cellName(cell, size));
+                }
+            }
+        }
+        return null;
+    }
+
+    // k cells of a unit whose candidates together are exactly k values own those values.
+    private static Hint nakedSubset(CandidateGrid grid, int k) {
+        Technique technique = k == 2 ? Technique.NAKED_PAIR : Technique.NAKED_TRIPLE;
+        int size = grid.size;
+        int[] combos = COMBOS[grid.geometry.getBoxSize()][k];
+        for (int u = 0; u < grid.units.length; u++) {
+            int[] unit = grid.units[u];
+            for (int combo : combos) {
+                int union = 0;
+                boolean usable = true;
+                for (int m = combo; m != 0; m &= m - 1) {
+                    int mask = grid.candidates[unit[Integer.numberOfTrailingZeros(m)]];
+                    usable &= mask != 0;
+                    union |= mask;
+                }
+                if (!usable || Integer.bitCount(union) != k) {
+                    continue;
+                }
+                int[] eliminations = new int[grid.values.length];
+                boolean found = false;
+                for (int j = 0; j < size; j++) {
+                    if ((combo & 1 << j) == 0 && (grid.candidates[unit[j]] & union) != 0) {
+                        eliminations[unit[j]] = grid.candidates[unit[j]] & union;
+                        found = true;
+                    }
+                }
+                if (found) {
+                    int unitIndex = u;
+                    int cells = combo;
+                    int values = union;
+                    return Hint.elimination(technique, size, eliminations, () -> "cells " + cellsName(unit, cells, size) + " in "
+                            + unitName(unitIndex, size) + " can only hold " + valuesName(values)
+                            + ", so those values are removed from the rest of the " + unitKind(unitIndex, size));
+                }
+            }
+        }
+        return null;
+    }
+
+    // k values that fit only in the same k cells of a unit claim those cells.
+    private static Hint hiddenSubset(CandidateGrid grid, int k) {
+        Technique technique = k == 2 ? Technique.HIDDEN_PAIR : Technique.HIDDEN_TRIPLE;
+        int size = grid.size;
+        int[] combos = COMBOS[grid.geometry.getBoxSize()][k];
+        int[] places = new int[size];
+        for (int u = 0; u < grid.units.length; u++) {
+            int[] unit = grid.units[u];
+            for (int d = 0; d < size; d++) {
+                places[d] = 0;
+                for (int j = 0; j < size; j++) {
+                    if ((grid.candidates[unit[j]] & 1 << d) != 0) {
+                        places[d] |= 1 << j;
+                    }
+                }
+            }
+            for (int combo : combos) {
+                int union = 0;
+                boolean usable = true;
+                for (int m = combo; m != 0; m &= m - 1) {
+                    int mask = places[Integer.numberOfTrailingZeros(m)];
+                    usable &= mask != 0;
+                    union |= mask;
+                }
+                if (!usable || Integer.bitCount(union) != k) {
+                    continue;
+                }
+                int[] eliminations = new int[grid.values.length];
+                boolean found = false;
+                for (int m = union; m != 0; m &= m - 1) {
+                    int cell = unit[Integer.numberOfTrailingZeros(m)];
+                    int extra = grid.candidates[cell] & ~combo;
+                    if (extra != 0) {
+                        eliminations[cell] = extra;
+                        found = true;
+                    }
+                }
+                if (found) {
+                    int unitIndex = u;
+                    int values = combo;
+                    int cells = union;
+                    return Hint.elimination(technique, size, eliminations, () -> valuesName(values) + " only fit in cells "
+                            + cellsName(unit, cells, size) + " of " + unitName(unitIndex, size)
+                            + ", so other candidates are removed from those cells");
+                }
+            }
+        }
+        return null;
+    }
+
+    // A value confined to one row or column inside a box cannot appear elsewhere on that line.
+    private static Hint pointing(CandidateGrid grid) {
+        int size = grid.size;
+        for (int b = 0; b < size; b++) {
+            int[] box = grid.units[2 * size + b];
+            for (int d = 0; d < size; d++) {
+                int bit = 1 << d;
+                int rows = 0;
+                int cols = 0;
+                int count = 0;
+                for (int cell : box) {
+                    if ((grid.candidates[cell] & bit) != 0) {
+                        rows |= 1 << cell / size;
+                        cols |= 1 << cell % size;
+                        count++;
+                    }
+                }
+                if (count < 2) {
+                    continue;
+                }
+                int line = -1;
+                if (Integer.bitCount(rows) == 1) {
+                    line = Integer.numberOfTrailingZeros(rows);
+                } else if (Integer.bitCount(cols) == 1) {
+                    line = size + Integer.numberOfTrailingZeros(cols);
+                }
+                if (line < 0) {
+                    continue;
+                }
+                int[] eliminations = eliminateOutside(grid, grid.units[line], 2 * size + b, bit);
+                if (eliminations != null) {
+                    int boxIndex = 2 * size + b;
+                    int value = d + 1;
+                    int lineIndex = line;
+                    return Hint.elimination(Technique.POINTING, size, eliminations, () -> "in " + unitName(boxIndex, size) + ", "
+                            + value + " can only go in " + unitName(lineIndex, size)
+                            + ", so it is removed from the rest of the " + unitKind(lineIndex, size));
+                }
+            }
+        }
+        return null;
+    }
+
+    // A value confined to one box along a row or column cannot appear elsewhere in that box.
+    private static Hint boxLineReduction(CandidateGrid grid) {
+        int size = grid.size;
+        for (int u = 0; u < 2 * size; u++) {
+            for (int d = 0; d < size; d++) {
+                int bit = 1 << d;
+                int boxes = 0;
+                int count = 0;
+                for (int cell : grid.units[u]) {
+                    if ((grid.candidates[cell] & bit) != 0) {
+                        boxes |= 1 << grid.unitsOf[cell][2] - 2 * size;
+                        count++;
+                    }
+                }
+                if (count < 2 || Integer.bitCount(boxes) != 1) {
+                    continue;
+                }
+                int box = 2 * size + Integer.numberOfTrailingZeros(boxes);
+                int[] eliminations = eliminateOutside(grid, grid.units[box], u, bit);
+                if (eliminations != null) {
+                    int lineIndex = u;
+                    int value = d + 1;
+                    return Hint.elimination(Technique.BOX_LINE_REDUCTION, size, eliminations, () -> "in " + unitName(lineIndex, size)
+                            + ", " + value + " can only go in " + unitName(box, size) + ", so it is removed from the rest of the box");
+                }
+            }
+        }
+        return null;
+    }
+
+    // Removes bit from the cells of target that are not part of unit keep; null if nothing changes.
+    private static int[] eliminateOutside(CandidateGrid grid, int[] target, int keep, int bit) {
+        int[] eliminations = null;
+        for (int cell : target) {
+            int[] units = grid.unitsOf[cell];
+            if (units[0] == keep || units[1] == keep || units[2] == keep) {
+                continue;
+            }
+            if ((grid.candidates[cell] & bit) != 0) {
+                if (eliminations == null) {
+                    eliminations = new int[grid.values.length];
+                }
+                eliminations[cell] = bit;
+            }
+        }
+        return eliminations;
+    }
+
+    // X-Wing (k = 2) and Swordfish (k = 3): if a value's places in k rows fall into the same
+    // k columns, those columns lose the value everywhere else (and the same with rows and columns swapped).
+    private static Hint fish(CandidateGrid grid, int k) {
+        Technique technique = k == 2 ? Technique.X_WING : Technique.SWORDFISH;
+        int size = grid.size;
+        int[] combos = COMBOS[grid.geometry.getBoxSize()][k];
+        int[] places = new int[size];
+        for (int d = 0; d < size; d++) {
+            int bit = 1 << d;
+            for (int base = 0; base <= size; base += size) {
+                int cover = size - base;
+                for (int line = 0; line < size; line++) {
+                    places[line] = 0;
+                    int[] unit = grid.units[base + line];
+                    for (int j = 0; j < size; j++) {
+                        if ((grid.candidates[unit[j]] & bit) != 0) {
+                            places[line] |= 1 << j;
+                        }
+                    }
+                }
+                for (int combo : combos) {
+                    int union = 0;
+                    boolean usable = true;
+                    for (int m = combo; m != 0; m &= m - 1) {
+                        int mask = places[Integer.numberOfTrailingZeros(m)];
+                        usable &= mask != 0;
+                        union |= mask;
+                    }
+                    if (!usable || Integer.bitCount(union) != k) {
+                        continue;
+                    }
+                    int[] eliminations = null;
+                    for (int m = union; m != 0; m &= m - 1) {
+                        int[] unit = grid.units[cover + Integer.numberOfTrailingZeros(m)];
+                        for (int j = 0; j < size; j++) {
+                            if ((combo & 1 << j) == 0 && (grid.candidates[unit[j]] & bit) != 0) {
+                                if (eliminations == null) {
+                                    eliminations = new int[grid.values.length];
+                                }
+                                eliminations[unit[j]] = bit;
+                            }
+                        }
+                    }
+                    if (eliminations != null) {
+                        String lines = base == 0 ? "rows" : "columns";
+                        String covers = base == 0 ? "columns" : "rows";
+                        int value = d + 1;
+                        int baseLines = combo;
+                        int coverLines = union;
+                        return Hint.elimination(technique, size, eliminations, () -> "in " + lines + " " + indexList(baseLines)
+                                + ", " + value + " only fits in " + covers + " " + indexList(coverLines)
+                                + ", so it is removed from the rest of those " + covers);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String cellName(int cell, int size) {
+        return "(" + cell / size + ", " + cell % size + ")";
+    }
+
+    private static String cellsName(int[] unit, int positions, int size) {
+        StringBuilder sb = new StringBuilder();
+        for (int m = positions; m != 0; m &= m - 1) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(cellName(unit[Integer.numberOfTrailingZeros(m)], size));
+        }
+        return sb.toString();
+    }
+
+    private static String valuesName(int mask) {
+        StringBuilder sb = new StringBuilder();
+        for (int m = mask; m != 0; m &= m - 1) {
+            if (sb.length() > 0) {
+                sb.append((m & m - 1) == 0 ? " and " : ", ");
+            }
+            sb.append(Integer.numberOfTrailingZeros(m) + 1);
+        }
+        return sb.toString();
+    }
+
+    private static String indexList(int mask) {
+        StringBuilder sb = new StringBuilder();
+        for (int m = mask; m != 0; m &= m - 1) {
+            if (sb.length() > 0) {
+                sb.append((m & m - 1) == 0 ? " and " : ", ");
+            }
+            sb.append(Integer.numberOfTrailingZeros(m));
+        }
+        return sb.toString();
+    }
+
+    private static String unitKind(int unit, int size) {
+        return unit < size ? "row" : unit < 2 * size ? "column" : "box";
+    }
+
+    private static String unitName(int unit, int size) {
+        return unitKind(unit, size) + " " + unit % size;
+    }
+}
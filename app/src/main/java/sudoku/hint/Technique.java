@@ -0,0 +1,25 @@
+package sudoku.hint;
+
+// Solving techniques, in the order the hint engine tries them (easiest first).
+public enum Technique {
+    NAKED_SINGLE("Naked single"),
+    HIDDEN_SINGLE("Hidden single"),
+    NAKED_PAIR("Naked pair"),
+    HIDDEN_PAIR("Hidden pair"),
+    POINTING("Pointing pair"),
+    BOX_LINE_REDUCTION("Box/line reduction"),
+    NAKED_TRIPLE("Naked triple"),
+    HIDDEN_TRIPLE("Hidden triple"),
+    X_WING("X-Wing"),
+    SWORDFISH("Swordfish");
+
+    private final String displayName;
+
+    Technique(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,65 @@
+package sudoku.io;
+
+import java.nio.ByteBuffer;
+import sudoku.Board;
+
+// Packs a 9x9 grid into 41 bytes, 4 bits per cell (high nibble first), instead of
+// the 162 bytes of Board.toString(). The last byte only uses its high nibble.
+public final class BoardCodec {
+    public static final int RECORD_SIZE = 41;
+
+    private BoardCodec() {
+    }
+
+    public static byte[] encode(int[] cells) {
+        byte[] bytes = new byte[RECORD_SIZE];
+        encode(cells, bytes, 0);
+        return bytes;
+    }
+
+    public static byte[] encode(Board board) {
+        return encode(board.toArray());
+    }
+
+    // Writes 81 row-major cells into dst starting at offset.
+    public static void encode(int[] cells, byte[] dst, int offset) {
+        if (cells.length != 81) {
+            throw new IllegalArgumentException("Board must contain exactly 81 cells.");
+        }
+        for (int i = 0; i < 80; i += 2) {
+            dst[offset + i / 2] = (byte) (nibble(cells[i]) << 4 | nibble(cells[i + 1]));
+        }
+        dst[offset + 40] = (byte) (nibble(cells[80]) << 4);
+    }
+
+    public static int[] decode(byte[] bytes) {
+        int[] cells = new int[81];
+        decode(ByteBuffer.wrap(bytes), 0, cells);
+        return cells;
+    }
+
+    // Reads a record at an absolute buffer position without touching the buffer's position,
+    // so several threads can decode from the same (memory-mapped) buffer.
+    public static void decode(ByteBuffer buffer, int offset, int[] cells) {
+        for (int i = 0; i < 80; i += 2) {
+            int b = buffer.get(offset + i / 2);
+            cells[i] = check(b >>> 4 & 0xF);
+            cells[i + 1] = check(b & 0xF);
+        }
+        cells[80] = check(buffer.get(offset + 40) >>> 4 & 0xF);
+    }
+
+    private static int nibble(int value) {
+        if (value < 0 || value > 9) {
+            throw new IllegalArgumentException("Board contains values outside acceptable range (0-9).");
+        }
+        return value;
+    }
+
+    private static int check(int value) {
+        if (value > 9) {
+            throw new IllegalArgumentException("Corrupt board record: cell value " + value + ".");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,489 @@
+package sudoku.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+import sudoku.Board;
+import sudoku.BoardListener;
+import sudoku.Geometry;
+import sudoku.MoveJournal;
+
+// Crash-safe autosave of one board: an append-only log of its moves, undos and redos,
+// periodically compacted into a snapshot.
+//
+// The directory holds two files. autosave.snap is a base grid plus the undo journal:
+// the moves that lead from the base to the current cells, then the moves that can be
+// redone, all under a CRC32C. autosave.wal starts with a 16-byte header (magic "SDKW",
+// record size, generation of the snapshot it continues) followed by one 12-byte record
+// per event: kind, packed move, CRC32C of the two.
+//
+// The board's thread only copies each event into a buffer and never waits for the disk.
+// A flusher thread writes whatever has been buffered with one write and one force(), so
+// a burst of moves costs a single fsync (group commit); sync() waits for that. Once
+// compactAfter records have piled up, the flusher writes a new snapshot beside the old
+// one, renames it into place and empties the log, so neither file grows with the game.
+// A crash loses at most the last commit window, and recover() replays the snapshot
+// plus every intact record of the log. Cells set while initializing are not logged.
+public final class MoveLog implements Closeable {
+    static final String SNAPSHOT_FILE = "autosave.snap";
+    static final String LOG_FILE = "autosave.wal";
+    static final int SNAPSHOT_MAGIC = 0x53444B53;
+    static final int LOG_MAGIC = 0x53444B57;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 12;
+    static final byte MOVE = 1;
+    static final byte UNDO = 2;
+    static final byte REDO = 3;
+    static final long COMMIT_DELAY_MILLIS = 20; // Time a commit waits for more of its group.
+    static final int COMPACT_AFTER = 4096;
+
+    private final Path directory;
+    private final Board board;
+    private final int size;
+    private final FileChannel channel;
+    private final long commitDelayNanos;
+    private final int compactAfter;
+    private final BoardListener listener = new BoardListener() {
+        @Override
+        public void moveMade(int move, boolean redone) {
+            append(redone ? REDO : MOVE, move);
+        }
+
+        @Override
+        public void moveUndone(int move) {
+            append(UNDO, move);
+        }
+    };
+    private final Thread flusher;
+
+    // Guarded by this. The cells and journal mirror the board as of the last appended
+    // record, so the flusher can take a snapshot without touching the board.
+    private final int[] cells;
+    private final MoveJournal journal = new MoveJournal();
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+    private final CRC32C crc = new CRC32C();
+    private ByteBuffer pending = ByteBuffer.allocate(RECORD_SIZE * 256);
+    private ByteBuffer spare = ByteBuffer.allocate(RECORD_SIZE * 256);
+    private long appended; // Records appended since the log was attached.
+    private long durable; // Records forced to disk.
+    private int sinceCompaction;
+    private boolean compactRequested;
+    private long compactionsStarted;
+    private long compactionsDone;
+    private boolean syncRequested;
+    private boolean closed;
+    private IOException failure;
+
+    // Only touched by the flusher after attach.
+    private long generation;
+    private long logSize;
+
+    private MoveLog(Path directory, Board board, FileChannel channel, long commitDelayMillis, int compactAfter) {
+        this.directory = directory;
+        this.board = board;
+        this.size = board.getSize();
+        this.channel = channel;
+        this.commitDelayNanos = TimeUnit.MILLISECONDS.toNanos(commitDelayMillis);
+        this.compactAfter = compactAfter;
+        this.cells = board.toArray();
+        MoveJournal undo = board.getUndoJournal();
+        for (int i = 0; i < undo.size(); i++) {
+            journal.push(undo.get(i));
+        }
+        for (int i = 0; i < undo.redoSize(); i++) {
+            journal.push(undo.getUndone(i));
+        }
+        for (int i = 0; i < undo.redoSize(); i++) {
+            journal.undo();
+        }
+        flusher = new Thread(this::flushLoop, "sudoku-autosave");
+        flusher.setDaemon(true);
+    }
+
+    // Starts autosaving the board into the directory, replacing whatever was saved there.
+    // The board's current state becomes the first snapshot. Call close() from the thread
+    // that makes the moves, since the board itself is not thread-safe.
+    public static MoveLog attach(Path directory, Board board) throws IOException {
+        return attach(directory, board, COMMIT_DELAY_MILLIS, COMPACT_AFTER);
+    }
+
+    static MoveLog attach(Path directory, Board board, long commitDelayMillis, int compactAfter) throws IOException {
+        if (compactAfter < 1) {
+            throw new IllegalArgumentException("Compaction threshold must be positive.");
+        }
+        Files.createDirectories(directory);
+        long previous = readGeneration(directory.resolve(SNAPSHOT_FILE));
+        FileChannel channel = FileChannel.open(directory.resolve(LOG_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MoveLog log = new MoveLog(directory, board, channel, commitDelayMillis, compactAfter);
+            log.generation = previous;
+            log.compactNow(log.capture());
+            board.addBoardListener(log.listener);
+            log.flusher.start();
+            return log;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Rebuilds the board saved in the directory from the snapshot and the intact records
+    // of the log written after it, including its undo and redo history. Returns null when
+    // nothing has been saved there. A record cut short by a crash ends the replay.
+    public static Board recover(Path directory) throws IOException {
+        Path snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(snapshotPath)) {
+            return null;
+        }
+        ByteBuffer snapshot = ByteBuffer.wrap(Files.readAllBytes(snapshotPath));
+        int end = snapshot.limit() - 4;
+        if (end < 16 || snapshot.getInt(0) != SNAPSHOT_MAGIC || snapshot.getInt(end) != checksum(snapshot, 0, end)) {
+            throw new IOException("Autosave snapshot is damaged: " + snapshotPath);
+        }
+        long generation = snapshot.getLong(4);
+        Geometry geometry;
+        try {
+            geometry = Geometry.of(snapshot.getInt(12));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Autosave snapshot is damaged: " + snapshotPath, e);
+        }
+        snapshot.position(16);
+        Board board = new Board(geometry);
+        int size = geometry.getSize();
+        board.startInitialization();
+        for (int i = 0; i < geometry.getCellCount(); i++) {
+            int value = snapshot.get();
+            if (value != 0) {
+                board.setCell(i / size, i % size, value, true);
+            }
+        }
+        board.endInitialization();
+        int applied = snapshot.getInt();
+        int redoable = snapshot.getInt();
+        for (int i = 0; i < applied + redoable; i++) {
+            replay(board, MOVE, snapshot.getInt(), snapshotPath);
+        }
+        for (int i = 0; i < redoable; i++) {
+            board.undoLastMove();
+        }
+
+        Path logPath = directory.resolve(LOG_FILE);
+        if (Files.exists(logPath)) {
+            ByteBuffer log = ByteBuffer.wrap(Files.readAllBytes(logPath));
+            // A log from before the snapshot's generation is already part of it.
+            if (log.limit() >= HEADER_SIZE && log.getInt(0) == LOG_MAGIC && log.getInt(4) == RECORD_SIZE
+                    && log.getLong(8) == generation) {
+                for (int at = HEADER_SIZE; at + RECORD_SIZE <= log.limit(); at += RECORD_SIZE) {
+                    if (log.getInt(at + 8) != checksum(log, at, 8)) {
+                        break;
+                    }
+                    replay(board, log.get(at), log.getInt(at + 4), logPath);
+                }
+            }
+        }
+        return board;
+    }
+
+    // Applies one logged event, checking that it fits the board as the log says it did.
+    private static void replay(Board board, byte kind, int move, Path path) throws IOException {
+        int row = MoveJournal.row(move);
+        int col = MoveJournal.col(move);
+        boolean fits = row < board.getSize() && col < board.getSize();
+        if (fits && kind == MOVE) {
+            fits = board.getCell(row, col) == MoveJournal.oldValue(move)
+                    && board.setCell(row, col, MoveJournal.newValue(move), false);
+        } else if (fits && kind == UNDO) {
+            fits = matches(board.undoLastMove(), move);
+        } else if (fits && kind == REDO) {
+            fits = matches(board.redoLastMove(), move);
+        } else {
+            fits = false;
+        }
+        if (!fits) {
+            throw new IOException("Autosave does not match its board: " + path);
+        }
+    }
+
+    private static boolean matches(Board.Move replayed, int move) {
+        return replayed != null
+                && MoveJournal.pack(replayed.getRow(), replayed.getCol(), replayed.getOldValue(), replayed.getNewValue()) == move;
+    }
+
+    // Waits until every event logged so far is on disk.
+    public void sync() throws IOException {
+        synchronized (this) {
+            long target = appended;
+            if (durable < target) {
+                syncRequested = true;
+                notifyAll();
+            }
+            awaitFlusher(() -> durable >= target);
+        }
+    }
+
+    // Compacts the log into a new snapshot now, without waiting for compactAfter records.
+    public void compact() throws IOException {
+        synchronized (this) {
+            long target = compactionsStarted + 1;
+            compactRequested = true;
+            notifyAll();
+            awaitFlusher(() -> compactionsDone >= target);
+        }
+    }
+
+    // Stops logging, after writing out what is buffered.
+    @Override
+    public void close() throws IOException {
+        board.removeBoardListener(listener);
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing the autosave log.");
+        } finally {
+            channel.close();
+        }
+        synchronized (this) {
+            if (failure != null) {
+                throw new IOException("Autosave failed: " + failure.getMessage(), failure);
+            }
+        }
+    }
+
+    private interface Condition {
+        boolean holds();
+    }
+
+    // Waits, holding the monitor, until the condition holds or the flusher fails or stops.
+    private void awaitFlusher(Condition condition) throws IOException {
+        try {
+            while (!condition.holds() && failure == null && flusher.isAlive()) {
+                wait(100);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the autosave log.");
+        }
+        if (failure != null) {
+            throw new IOException("Autosave failed: " + failure.getMessage(), failure);
+        }
+        if (!condition.holds()) {
+            throw new IOException("Autosave log is closed.");
+        }
+    }
+
+    // Buffers one record and updates the mirror; runs on the board's thread.
+    private synchronized void append(byte kind, int move) {
+        if (closed || failure != null) {
+            return;
+        }
+        record.clear();
+        record.put(kind).put((byte) 0).put((byte) 0).put((byte) 0).putInt(move);
+        crc.reset();
+        crc.update(record.array(), 0, 8);
+        record.putInt((int) crc.getValue());
+        if (pending.remaining() < RECORD_SIZE) {
+            ByteBuffer grown = ByteBuffer.allocate(pending.capacity() * 2);
+            pending.flip();
+            pending = grown.put(pending);
+        }
+        pending.put(record.array());
+
+        int cell = MoveJournal.row(move) * size + MoveJournal.col(move);
+        if (kind == MOVE) {
+            journal.push(move);
+            cells[cell] = MoveJournal.newValue(move);
+        } else if (kind == UNDO) {
+            journal.undo();
+            cells[cell] = MoveJournal.oldValue(move);
+        } else {
+            journal.redo();
+            cells[cell] = MoveJournal.newValue(move);
+        }
+        appended++;
+        sinceCompaction++;
+        notifyAll();
+    }
+
+    private void flushLoop() {
+        while (true) {
+            ByteBuffer batch;
+            long batchEnd;
+            Snapshot snapshot = null;
+            synchronized (this) {
+                try {
+                    while (!closed && pending.position() == 0 && !compactRequested) {
+                        wait();
+                    }
+                    // Give the rest of the group a moment to arrive, unless someone is waiting.
+                    long deadline = System.nanoTime() + commitDelayNanos;
+                    for (long left = commitDelayNanos; left > 0 && !closed && !syncRequested && !compactRequested;
+                            left = deadline - System.nanoTime()) {
+                        TimeUnit.NANOSECONDS.timedWait(this, left);
+                    }
+                } catch (InterruptedException e) {
+                    failure = new InterruptedIOException("Autosave flusher was interrupted.");
+                    notifyAll();
+                    return;
+                }
+                if (closed && pending.position() == 0) {
+                    return;
+                }
+                batch = pending;
+                pending = spare;
+                batchEnd = appended;
+                syncRequested = false;
+                if (compactRequested || sinceCompaction >= compactAfter) {
+                    snapshot = capture();
+                    compactionsStarted++;
+                    sinceCompaction = 0;
+                    compactRequested = false;
+                }
+            }
+            IOException error = null;
+            try {
+                batch.flip();
+                if (batch.hasRemaining()) {
+                    while (batch.hasRemaining()) {
+                        logSize += channel.write(batch, logSize);
+                    }
+                    channel.force(false);
+                }
+                if (snapshot != null) {
+                    compactNow(snapshot);
+                }
+            } catch (IOException e) {
+                error = e;
+            }
+            synchronized (this) {
+                batch.clear();
+                spare = batch;
+                if (error != null) {
+                    failure = error;
+                    notifyAll();
+                    return;
+                }
+                durable = batchEnd;
+                if (snapshot != null) {
+                    compactionsDone = compactionsStarted;
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    // Base cells and undo journal, as they are after the last appended record.
+    private static final class Snapshot {
+        final int[] base;
+        final int applied;
+        final int[] moves; // Applied moves oldest first, then redoable ones next first.
+
+        Snapshot(int[] base, int applied, int[] moves) {
+            this.base = base;
+            this.applied = applied;
+            this.moves = moves;
+        }
+    }
+
+    private synchronized Snapshot capture() {
+        int[] base = cells.clone();
+        int applied = journal.size();
+        int[] moves = new int[applied + journal.redoSize()];
+        // Undo the applied moves to find the grid they started from.
+        for (int i = applied - 1; i >= 0; i--) {
+            int move = journal.get(i);
+            moves[i] = move;
+            base[MoveJournal.row(move) * size + MoveJournal.col(move)] = MoveJournal.oldValue(move);
+        }
+        for (int i = 0; i < journal.redoSize(); i++) {
+            moves[applied + i] = journal.getUndone(i);
+        }
+        return new Snapshot(base, applied, moves);
+    }
+
+    // Writes the snapshot as the next generation, then empties the log and stamps it
+    // with that generation. Each step is forced before the next, so after a crash the
+    // pair on disk is either the old snapshot with its log, the new snapshot with a log
+    // recover() ignores, or the new snapshot with an empty log.
+    private void compactNow(Snapshot snapshot) throws IOException {
+        long next = generation + 1;
+        ByteBuffer out = ByteBuffer.allocate(16 + snapshot.base.length + 8 + 4 * snapshot.moves.length + 4);
+        out.putInt(SNAPSHOT_MAGIC).putLong(next).putInt(board.getGeometry().getBoxSize());
+        for (int value : snapshot.base) {
+            out.put((byte) value);
+        }
+        out.putInt(snapshot.applied).putInt(snapshot.moves.length - snapshot.applied);
+        for (int move : snapshot.moves) {
+            out.putInt(move);
+        }
+        out.putInt(checksum(out, 0, out.position()));
+        out.flip();
+
+        Path target = directory.resolve(SNAPSHOT_FILE);
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel file = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) {
+                file.write(out);
+            }
+            file.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory();
+
+        channel.truncate(Math.min(channel.size(), HEADER_SIZE));
+        channel.force(true);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(LOG_MAGIC).putInt(RECORD_SIZE).putLong(next).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        channel.force(true);
+        generation = next;
+        logSize = HEADER_SIZE;
+    }
+
+    // Makes the rename durable where the platform allows opening a directory.
+    private void syncDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // Not supported here (e.g. Windows); the rename is still atomic.
+        }
+    }
+
+    // Generation of an existing snapshot, or 0 when there is none that can be read.
+    private static long readGeneration(Path snapshot) throws IOException {
+        if (!Files.exists(snapshot)) {
+            return 0;
+        }
+        try (FileChannel file = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(12);
+            while (header.hasRemaining() && file.read(header, header.position()) > 0) {
+                // keep reading until the header is complete
+            }
+            return !header.hasRemaining() && header.getInt(0) == SNAPSHOT_MAGIC ? header.getLong(4) : 0;
+        }
+    }
+
+    private static int checksum(ByteBuffer buffer, int from, int length) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer slice = buffer.duplicate();
+        slice.limit(from + length).position(from);
+        crc.update(slice);
+        return (int) crc.getValue();
+    }
+}
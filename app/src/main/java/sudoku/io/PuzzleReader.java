@@ -0,0 +1,187 @@
+package sudoku.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import sudoku.Board;
+
+// Streams puzzles out of a file of any size, one 81-cell grid at a time.
+//
+// Accepts both common layouts, even mixed in one file:
+//   - one puzzle per line, 81 characters, empty cells as '0' or '.'
+//   - the whitespace (or comma) separated 9x9 grid used by the files in puzzles/
+// Lines starting with '#' are comments. A puzzle must end on a line boundary.
+//
+// Parsing runs directly over a fixed byte buffer, so memory stays bounded no
+// matter how large the input is. Grids are returned raw; use boards() or
+// Board.fromArray to also check them for duplicates.
+public final class PuzzleReader implements Iterator<int[]>, Closeable {
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private final InputStream in;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+    private boolean eof;
+    private int[] next;
+    private long line = 1;
+    private long puzzleCount;
+
+    public PuzzleReader(InputStream in) {
+        this(in, DEFAULT_BUFFER_SIZE);
+    }
+
+    public PuzzleReader(InputStream in, int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be positive.");
+        }
+        this.in = in;
+        this.buffer = new byte[bufferSize];
+    }
+
+    public static PuzzleReader open(Path path) throws IOException {
+        return new PuzzleReader(Files.newInputStream(path));
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = readPuzzle();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public int[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        int[] puzzle = next;
+        next = null;
+        return puzzle;
+    }
+
+    // Number of puzzles returned so far.
+    public long getPuzzleCount() {
+        return puzzleCount;
+    }
+
+    // Lazily streams the raw grids; closing the stream closes the reader.
+    public Stream<int[]> stream() {
+        Spliterator<int[]> spliterator = Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::closeQuietly);
+    }
+
+    // Lazily streams validated boards; throws IllegalArgumentException on the first invalid grid.
+    public Stream<Board> boards() {
+        return stream().map(Board::fromArray);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Returns the next byte, or -1 at the end of the input.
+    private int read() throws IOException {
+        if (position == limit) {
+            if (eof) {
+                return -1;
+            }
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                eof = true;
+                return -1;
+            }
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    private int[] readPuzzle() throws IOException {
+        int[] cells = null;
+        int count = 0;
+        while (true) {
+            int b = read();
+            if (b >= '0' && b <= '9' || b == '.') {
+                if (cells == null) {
+                    cells = new int[81];
+                }
+                cells[count++] = b == '.' ? 0 : b - '0';
+                if (count == 81) {
+                    finishLine();
+                    puzzleCount++;
+                    return cells;
+                }
+            } else if (b == '\n') {
+                line++;
+            } else if (b == '#' && count == 0) {
+                skipLine();
+            } else if (b == -1) {
+                if (count > 0) {
+                    throw new IllegalArgumentException("Truncated puzzle at end of input: only " + count + " of 81 cells.");
+                }
+                return null;
+            } else if (b != ' ' && b != '\t' && b != '\r' && b != ',') {
+                throw error(b);
+            }
+        }
+    }
+
+    // After the 81st cell only whitespace may follow on the same line.
+    private void finishLine() throws IOException {
+        while (true) {
+            int b = read();
+            if (b == '\n') {
+                line++;
+                return;
+            }
+            if (b == -1) {
+                return;
+            }
+            if (b >= '0' && b <= '9' || b == '.') {
+                throw new IllegalArgumentException("More than 81 cells in puzzle ending on line " + line + ".");
+            }
+            if (b != ' ' && b != '\t' && b != '\r' && b != ',') {
+                throw error(b);
+            }
+        }
+    }
+
+    private void skipLine() throws IOException {
+        int b;
+        do {
+            b = read();
+        } while (b != '\n' && b != -1);
+        if (b == '\n') {
+            line++;
+        }
+    }
+
+    private IllegalArgumentException error(int b) {
+        return new IllegalArgumentException("Unexpected character '" + (char) (b & 0xFF) + "' on line " + line + ".");
+    }
+}
@@ -0,0 +1,131 @@
+package sudoku.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+
+// Random-access archive of puzzles stored as fixed-size BoardCodec records.
+//
+// Layout: a 16-byte header (magic "SDK1", record size, record count) followed by
+// the records back to back. The file is memory-mapped in segments of whole
+// records, so get(n) decodes straight out of the page cache with no read calls
+// or intermediate copies. A store is safe to share between reader threads.
+public final class PuzzleStore implements Closeable {
+    static final int MAGIC = 0x53444B31;
+    static final int HEADER_SIZE = 16;
+    // Records per mapped segment; keeps each mapping well under the 2 GB limit.
+    private static final int RECORDS_PER_SEGMENT = 1 << 24;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long count;
+
+    private PuzzleStore(FileChannel channel, MappedByteBuffer[] segments, long count) {
+        this.channel = channel;
+        this.segments = segments;
+        this.count = count;
+    }
+
+    public static PuzzleStore open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                // keep reading until the header is complete
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                throw new IOException("Not a puzzle store: " + path);
+            }
+            if (header.getInt() != BoardCodec.RECORD_SIZE) {
+                throw new IOException("Unsupported record size in " + path);
+            }
+            long count = header.getLong();
+            if (count < 0) {
+                throw new IOException("Corrupt record count in " + path);
+            }
+            // Divided rather than multiplied, so a huge corrupt count cannot overflow.
+            if (count > (channel.size() - HEADER_SIZE) / BoardCodec.RECORD_SIZE) {
+                throw new IOException("Puzzle store is truncated: " + path);
+            }
+            int segmentCount = (int) ((count + RECORDS_PER_SEGMENT - 1) / RECORDS_PER_SEGMENT);
+            MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long first = (long) i * RECORDS_PER_SEGMENT;
+                long records = Math.min(RECORDS_PER_SEGMENT, count - first);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        HEADER_SIZE + first * BoardCodec.RECORD_SIZE, records * BoardCodec.RECORD_SIZE);
+            }
+            return new PuzzleStore(channel, segments, count);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Writes all puzzles into a new store file, replacing any existing file. Returns the record count.
+    public static long write(Path path, Iterator<int[]> puzzles) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BoardCodec.RECORD_SIZE * 4096);
+            buffer.putInt(MAGIC).putInt(BoardCodec.RECORD_SIZE).putLong(0);
+            byte[] record = new byte[BoardCodec.RECORD_SIZE];
+            long count = 0;
+            while (puzzles.hasNext()) {
+                BoardCodec.encode(puzzles.next(), record, 0);
+                if (buffer.remaining() < record.length) {
+                    flush(channel, buffer);
+                }
+                buffer.put(record);
+                count++;
+            }
+            flush(channel, buffer);
+            // Only publish the count once every record is on disk, then make the count durable too.
+            channel.force(false);
+            ByteBuffer header = ByteBuffer.allocate(8).putLong(0, count);
+            while (header.hasRemaining()) {
+                channel.write(header, 8 + header.position());
+            }
+            channel.force(false);
+            return count;
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    public long size() {
+        return count;
+    }
+
+    public int[] get(long index) {
+        int[] cells = new int[81];
+        get(index, cells);
+        return cells;
+    }
+
+    // Decodes puzzle number index into cells, reusing the caller's array.
+    public void get(long index, int[] cells) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Puzzle " + index + " out of range [0, " + count + ").");
+        }
+        int segment = (int) (index / RECORDS_PER_SEGMENT);
+        int offset = (int) (index % RECORDS_PER_SEGMENT) * BoardCodec.RECORD_SIZE;
+        BoardCodec.decode(segments[segment], offset, cells);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,26 @@
+package sudoku.metrics;
+
+// Events counted by the instrumentation.
+public enum Counter {
+    MOVES_ACCEPTED("sudoku_moves_accepted_total", "Moves accepted by a board, clears included."),
+    MOVES_REJECTED("sudoku_moves_rejected_total", "Moves rejected as illegal or out of range."),
+    UNDOS("sudoku_undos_total", "Moves undone."),
+    REDOS("sudoku_redos_total", "Moves redone."),
+    BOARDS_LOADED("sudoku_boards_loaded_total", "Boards loaded from a stream.");
+
+    private final String metricName;
+    private final String help;
+
+    Counter(String metricName, String help) {
+        this.metricName = metricName;
+        this.help = help;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+
+    public String getHelp() {
+        return help;
+    }
+}
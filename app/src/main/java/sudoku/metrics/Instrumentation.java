@@ -0,0 +1,21 @@
+package sudoku.metrics;
+
+// Receives counter and latency events. Implementations must be thread-safe; see
+// Metrics for how one is installed.
+public interface Instrumentation {
+
+    // Discards everything; installed by default.
+    Instrumentation NOOP = new Instrumentation() {
+        @Override
+        public void add(Counter counter, long amount) {
+        }
+
+        @Override
+        public void record(Timer timer, long nanos) {
+        }
+    };
+
+    void add(Counter counter, long amount);
+
+    void record(Timer timer, long nanos);
+}
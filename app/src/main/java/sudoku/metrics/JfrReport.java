@@ -0,0 +1,90 @@
+package sudoku.metrics;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+// Summarizes the SudokuEvents in a flight recording: count, p50, p99, p999 and maximum
+// duration per event type, in milliseconds.
+//
+// Usage: JfrReport <recording.jfr>  (or ./gradlew :app:jfrReport --args=<recording.jfr>)
+//
+// Quantiles are exact (nearest rank over every recorded duration) rather than bucketed
+// like LatencyHistogram, since a single slow frame is what the report is for.
+public final class JfrReport {
+    private final Map<String, long[]> durations = new TreeMap<>();
+    private final Map<String, Integer> counts = new TreeMap<>();
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("usage: JfrReport <recording.jfr>");
+            System.exit(2);
+        }
+        read(Path.of(args[0])).print(System.out);
+    }
+
+    // Reads every sudoku.* event of the recording.
+    public static JfrReport read(Path recording) throws IOException {
+        JfrReport report = new JfrReport();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                String name = event.getEventType().getName();
+                if (name.startsWith(SudokuEvents.PREFIX)) {
+                    report.add(name, event.getDuration().toNanos());
+                }
+            }
+        }
+        return report;
+    }
+
+    void add(String event, long nanos) {
+        int count = counts.getOrDefault(event, 0);
+        long[] values = durations.computeIfAbsent(event, e -> new long[16]);
+        if (count == values.length) {
+            values = Arrays.copyOf(values, count * 2);
+            durations.put(event, values);
+        }
+        values[count] = nanos;
+        counts.put(event, count + 1);
+    }
+
+    // Event type names seen, sorted.
+    public Iterable<String> getEvents() {
+        return counts.keySet();
+    }
+
+    public int getCount(String event) {
+        return counts.getOrDefault(event, 0);
+    }
+
+    // Nearest-rank q-quantile (0 < q <= 1) of the event's durations; 0 if it never occurred.
+    public long quantileNanos(String event, double q) {
+        int count = getCount(event);
+        if (count == 0) {
+            return 0;
+        }
+        long[] values = durations.get(event);
+        Arrays.sort(values, 0, count);
+        int rank = (int) Math.ceil(q * count);
+        return values[Math.max(rank, 1) - 1];
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%-22s %8s %10s %10s %10s %10s%n", "event", "count", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (String event : getEvents()) {
+            out.printf("%-22s %8d %10.3f %10.3f %10.3f %10.3f%n", event, getCount(event),
+                    millis(quantileNanos(event, 0.5)), millis(quantileNanos(event, 0.99)),
+                    millis(quantileNanos(event, 0.999)), millis(quantileNanos(event, 1.0)));
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,69 @@
+package sudoku.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock-free latency histogram with power-of-two nanosecond buckets.
+//
+// Bucket k counts durations in (2^(k-1), 2^k] ns, so recording is a leading-zero
+// count and one atomic increment; quantiles are accurate to within a factor of two.
+public final class LatencyHistogram {
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        buckets.incrementAndGet(bucket(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    static int bucket(long nanos) {
+        return nanos <= 1 ? 0 : 64 - Long.numberOfLeadingZeros(nanos - 1);
+    }
+
+    // Upper bound, in nanoseconds, of bucket k.
+    static long upperBound(int k) {
+        return k >= 63 ? Long.MAX_VALUE : 1L << k;
+    }
+
+    long bucketCount(int k) {
+        return buckets.get(k);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSumNanos() {
+        return sum.sum();
+    }
+
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    // Upper bound of the bucket holding the q-quantile (0 < q <= 1), capped at the
+    // largest recorded value; 0 when nothing was recorded.
+    public long quantileNanos(double q) {
+        long total = getCount();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(q * total);
+        long seen = 0;
+        for (int k = 0; k < BUCKETS; k++) {
+            seen += buckets.get(k);
+            if (seen >= rank) {
+                return Math.min(upperBound(k), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+}
@@ -0,0 +1,71 @@
+package sudoku.metrics;
+
+// Static entry point used by the instrumented code.
+//
+// Instrumentation is off by default: the installed sink is Instrumentation.NOOP,
+// and startTimer() skips the clock read, so an uninstrumented event costs one
+// field read and an empty call that the JIT inlines away.
+public final class Metrics {
+    // Set to "json" or "prometheus" to collect metrics and dump them to stderr on exit.
+    public static final String PROPERTY = "sudoku.metrics";
+
+    private static volatile Instrumentation current = Instrumentation.NOOP;
+
+    private Metrics() {
+    }
+
+    public static void install(Instrumentation instrumentation) {
+        current = instrumentation == null ? Instrumentation.NOOP : instrumentation;
+    }
+
+    public static Instrumentation get() {
+        return current;
+    }
+
+    public static boolean isEnabled() {
+        return current != Instrumentation.NOOP;
+    }
+
+    public static void count(Counter counter) {
+        current.add(counter, 1);
+    }
+
+    public static void count(Counter counter, long amount) {
+        current.add(counter, amount);
+    }
+
+    // Start of a timed operation, or 0 when instrumentation is off.
+    public static long startTimer() {
+        return current == Instrumentation.NOOP ? 0 : System.nanoTime();
+    }
+
+    public static void stopTimer(Timer timer, long start) {
+        if (start != 0) {
+            current.record(timer, System.nanoTime() - start);
+        }
+    }
+
+    // Records a duration the caller has already measured.
+    public static void record(Timer timer, long nanos) {
+        current.record(timer, nanos);
+    }
+
+    // Installs a MetricsRegistry when the sudoku.metrics system property asks for one,
+    // and dumps it to stderr in the requested format when the JVM exits. Returns the
+    // registry, or null if metrics stay off.
+    public static MetricsRegistry installFromSystemProperty() {
+        String format = System.getProperty(PROPERTY);
+        if (format == null || format.isEmpty()) {
+            return null;
+        }
+        boolean prometheus = format.equalsIgnoreCase("prometheus");
+        if (!prometheus && !format.equalsIgnoreCase("json")) {
+            throw new IllegalArgumentException("Unknown metrics format " + format + " (expected json or prometheus).");
+        }
+        MetricsRegistry registry = new MetricsRegistry();
+        install(registry);
+        Runtime.getRuntime().addShutdownHook(new Thread(() ->
+                System.err.println(prometheus ? registry.toPrometheus() : registry.toJson()), "sudoku-metrics-dump"));
+        return registry;
+    }
+}
@@ -0,0 +1,109 @@
+package sudoku.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// In-memory Instrumentation: a LongAdder per counter and a LatencyHistogram per timer,
+// dumpable as JSON or in the Prometheus text exposition format.
+public final class MetricsRegistry implements Instrumentation {
+    // Histogram buckets exported to Prometheus: 1us (2^10 ns) to about 17s (2^34 ns).
+    private static final int FIRST_EXPORTED_BUCKET = 10;
+    private static final int LAST_EXPORTED_BUCKET = 34;
+
+    private final Map<Counter, LongAdder> counters = new EnumMap<>(Counter.class);
+    private final Map<Timer, LatencyHistogram> timers = new EnumMap<>(Timer.class);
+
+    public MetricsRegistry() {
+        // Filled once and only read afterwards, so the maps need no synchronization.
+        for (Counter counter : Counter.values()) {
+            counters.put(counter, new LongAdder());
+        }
+        for (Timer timer : Timer.values()) {
+            timers.put(timer, new LatencyHistogram());
+        }
+    }
+
+    @Override
+    public void add(Counter counter, long amount) {
+        counters.get(counter).add(amount);
+    }
+
+    @Override
+    public void record(Timer timer, long nanos) {
+        timers.get(timer).record(nanos);
+    }
+
+    public long getCount(Counter counter) {
+        return counters.get(counter).sum();
+    }
+
+    public LatencyHistogram getHistogram(Timer timer) {
+        return timers.get(timer);
+    }
+
+    // One-line JSON object: counters by name, and per timer the count, sum, max and
+    // p50/p99/p999 in microseconds.
+    public String toJson() {
+        StringBuilder sb = new StringBuilder("{\"counters\":{");
+        String separator = "";
+        for (Counter counter : Counter.values()) {
+            sb.append(separator).append('"').append(counter.getMetricName()).append("\":").append(getCount(counter));
+            separator = ",";
+        }
+        sb.append("},\"timers\":{");
+        separator = "";
+        for (Timer timer : Timer.values()) {
+            LatencyHistogram histogram = timers.get(timer);
+            sb.append(separator).append('"').append(timer.getMetricName()).append("\":{")
+                    .append("\"count\":").append(histogram.getCount())
+                    .append(",\"sum_us\":").append(micros(histogram.getSumNanos()))
+                    .append(",\"max_us\":").append(micros(histogram.getMaxNanos()))
+                    .append(",\"p50_us\":").append(micros(histogram.quantileNanos(0.5)))
+                    .append(",\"p99_us\":").append(micros(histogram.quantileNanos(0.99)))
+                    .append(",\"p999_us\":").append(micros(histogram.quantileNanos(0.999)))
+                    .append('}');
+            separator = ",";
+        }
+        return sb.append("}}").toString();
+    }
+
+    // Prometheus text format: counters as counters, timers as cumulative histograms in seconds.
+    public String toPrometheus() {
+        StringBuilder sb = new StringBuilder();
+        for (Counter counter : Counter.values()) {
+            String name = counter.getMetricName();
+            sb.append("# HELP ").append(name).append(' ').append(counter.getHelp()).append('\n');
+            sb.append("# TYPE ").append(name).append(" counter\n");
+            sb.append(name).append(' ').append(getCount(counter)).append('\n');
+        }
+        for (Timer timer : Timer.values()) {
+            String name = timer.getMetricName();
+            LatencyHistogram histogram = timers.get(timer);
+            sb.append("# HELP ").append(name).append(' ').append(timer.getHelp()).append('\n');
+            sb.append("# TYPE ").append(name).append(" histogram\n");
+            long cumulative = 0;
+            for (int k = 0; k <= LAST_EXPORTED_BUCKET; k++) {
+                cumulative += histogram.bucketCount(k);
+                if (k >= FIRST_EXPORTED_BUCKET) {
+                    sb.append(name).append("_bucket{le=\"").append(seconds(LatencyHistogram.upperBound(k)))
+                            .append("\"} ").append(cumulative).append('\n');
+                }
+            }
+            // Read the count once so +Inf and _count agree even while events are being recorded.
+            long count = Math.max(histogram.getCount(), cumulative);
+            sb.append(name).append("_bucket{le=\"+Inf\"} ").append(count).append('\n');
+            sb.append(name).append("_sum ").append(seconds(histogram.getSumNanos())).append('\n');
+            sb.append(name).append("_count ").append(count).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static String micros(long nanos) {
+        return Double.toString(nanos / 1e3);
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+}
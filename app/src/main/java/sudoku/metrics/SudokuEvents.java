@@ -0,0 +1,98 @@
+package sudoku.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// JDK Flight Recorder events for the latency of user-visible work, from a keystroke to the
+// repaint. Unlike the Metrics timers they cost nothing to install: while no recording is
+// running, begin(), end() and shouldCommit() are no-ops, so they stay in the code
+// permanently. Start a recording with -XX:StartFlightRecording (or ./gradlew :app:run -Pjfr)
+// and summarize it with JfrReport.
+//
+// Usage: event.begin(); ...; if (event.shouldCommit()) { set fields; event.commit(); }
+// The frequent ones carry no stack trace, which keeps the cost of a recording low.
+public final class SudokuEvents {
+    static final String PREFIX = "sudoku.";
+
+    private SudokuEvents() {
+    }
+
+    @Name(PREFIX + "Input")
+    @Label("Cell Input")
+    @Description("Handling of a cell edit in the game window, from the text change to the board update.")
+    @Category("Sudoku")
+    @StackTrace(false)
+    public static class Input extends Event {
+        @Label("Row")
+        public int row;
+        @Label("Column")
+        public int col;
+        @Label("Text")
+        public String text;
+        @Label("Accepted")
+        public boolean accepted;
+    }
+
+    @Name(PREFIX + "SetCell")
+    @Label("Set Cell")
+    @Description("A move checked and applied by Board.setCell.")
+    @Category("Sudoku")
+    @StackTrace(false)
+    public static class SetCell extends Event {
+        @Label("Row")
+        public int row;
+        @Label("Column")
+        public int col;
+        @Label("Value")
+        public int value;
+        @Label("Accepted")
+        public boolean accepted;
+    }
+
+    @Name(PREFIX + "Hint")
+    @Label("Hint")
+    @Description("Search for a hint or for the cells with a single candidate.")
+    @Category("Sudoku")
+    public static class Hint extends Event {
+        @Label("Technique")
+        public String technique;
+        @Label("Cells Found")
+        public int cells;
+    }
+
+    @Name(PREFIX + "UpdateBoard")
+    @Label("Update Board")
+    @Description("Repaint of the cells that changed since the last repaint.")
+    @Category("Sudoku")
+    @StackTrace(false)
+    public static class UpdateBoard extends Event {
+        @Label("Cells Repainted")
+        public int cells;
+    }
+
+    @Name(PREFIX + "Load")
+    @Label("Load Board")
+    @Description("Parsing and validating a board from a stream.")
+    @Category("Sudoku")
+    public static class Load extends Event {
+        @Label("Cells")
+        public int cells;
+        @Label("Valid")
+        public boolean valid;
+    }
+
+    @Name(PREFIX + "Save")
+    @Label("Save Board")
+    @Description("Writing the board to a file.")
+    @Category("Sudoku")
+    public static class Save extends Event {
+        @Label("Path")
+        public String path;
+        @Label("Bytes")
+        public long bytes;
+    }
+}
@@ -0,0 +1,24 @@
+package sudoku.metrics;
+
+// Operations whose latency is recorded by the instrumentation.
+public enum Timer {
+    HINT("sudoku_hint_seconds", "Time to find a hint for a board."),
+    SOLVE("sudoku_solve_seconds", "Time to solve a puzzle."),
+    LOAD("sudoku_load_seconds", "Time to load a board from a stream.");
+
+    private final String metricName;
+    private final String help;
+
+    Timer(String metricName, String help) {
+        this.metricName = metricName;
+        this.help = help;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+
+    public String getHelp() {
+        return help;
+    }
+}
@@ -0,0 +1,9 @@
+package sudoku.rating;
+
+// Difficulty bands, set by the hardest technique a puzzle needs (see DifficultyRater).
+public enum Difficulty {
+    EASY,
+    MEDIUM,
+    HARD,
+    EXTREME
+}
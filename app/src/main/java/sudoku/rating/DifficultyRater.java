@@ -0,0 +1,100 @@
+package sudoku.rating;
+
+import sudoku.Board;
+import sudoku.hint.CandidateGrid;
+import sudoku.hint.Hint;
+import sudoku.hint.HintEngine;
+import sudoku.hint.Technique;
+import sudoku.solver.BitmaskSolver;
+import sudoku.solver.SolveResult;
+
+// Scores a puzzle by solving it the way a person would.
+//
+// The hint engine is applied step by step; every step adds the weight of its
+// technique to the score. If logic gets stuck, the bitmask solver finishes the
+// grid and its node count is added on top of a fixed guessing penalty.
+// The band depends only on the hardest technique needed, never on how many steps
+// it took: easy needs only naked singles, medium also hidden singles, hard needs
+// pairs, pointing or triples, and extreme needs fish patterns or guessing. The
+// score orders puzzles within a band. Instances are thread-safe.
+public final class DifficultyRater {
+    private static final int GUESS_PENALTY = 100;
+    private static final int MAX_SEARCH_SCORE = 1_000_000;
+
+    private final HintEngine engine = new HintEngine();
+    private final BitmaskSolver solver = new BitmaskSolver();
+
+    public Rating rate(Board board) {
+        return rate(board.toArray());
+    }
+
+    // Rates a grid of row-major cells; throws IllegalArgumentException if it has no solution.
+    // Any supported size works, but the score bands are calibrated on 9x9 puzzles.
+    public Rating rate(int[] cells) {
+        CandidateGrid grid = CandidateGrid.of(cells);
+        int[] counts = new int[Technique.values().length];
+        Technique hardest = null;
+        int score = 0;
+        for (Hint hint; (hint = engine.findHint(grid)) != null; ) {
+            Technique technique = hint.getTechnique();
+            counts[technique.ordinal()]++;
+            score += weight(technique);
+            if (hardest == null || technique.compareTo(hardest) > 0) {
+                hardest = technique;
+            }
+            hint.apply(grid);
+        }
+
+        long searchNodes = 0;
+        if (!grid.isSolved()) {
+            int[] remaining = new int[cells.length];
+            for (int cell = 0; cell < cells.length; cell++) {
+                remaining[cell] = grid.getValue(cell);
+            }
+            SolveResult result = solver.solve(remaining);
+            if (!result.isSolved()) {
+                throw new IllegalArgumentException("Puzzle has no solution.");
+            }
+            searchNodes = Math.max(1, result.getNodes());
+            score += GUESS_PENALTY + (int) Math.min(searchNodes, MAX_SEARCH_SCORE);
+        }
+        return new Rating(score, band(hardest, searchNodes), hardest, counts, searchNodes);
+    }
+
+    private static Difficulty band(Technique hardest, long searchNodes) {
+        if (searchNodes > 0 || hardest != null && hardest.compareTo(Technique.X_WING) >= 0) {
+            return Difficulty.EXTREME;
+        }
+        if (hardest != null && hardest.compareTo(Technique.HIDDEN_SINGLE) > 0) {
+            return Difficulty.HARD;
+        }
+        if (hardest == Technique.HIDDEN_SINGLE) {
+            return Difficulty.MEDIUM;
+        }
+        return Difficulty.EASY;
+    }
+
+    static int weight(Technique technique) {
+        switch (technique) {
+            case NAKED_SINGLE:
+                return 1;
+            case HIDDEN_SINGLE:
+                return 2;
+            case NAKED_PAIR:
+                return 10;
+            case HIDDEN_PAIR:
+                return 12;
+            case POINTING:
+            case BOX_LINE_REDUCTION:
+                return 15;
+            case NAKED_TRIPLE:
+                return 20;
+            case HIDDEN_TRIPLE:
+                return 25;
+            case X_WING:
+                return 30;
+            default:
+                return 40;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package sudoku.rating;
+
+import sudoku.hint.Technique;
+
+// Result of rating one puzzle.
+public final class Rating {
+    private final int score;
+    private final Difficulty difficulty;
+    private final Technique hardest;
+    private final int[] techniqueCounts;
+    private final long searchNodes;
+
+    Rating(int score, Difficulty difficulty, Technique hardest, int[] techniqueCounts, long searchNodes) {
+        this.score = score;
+        this.difficulty = difficulty;
+        this.hardest = hardest;
+        this.techniqueCounts = techniqueCounts;
+        this.searchNodes = searchNodes;
+    }
+
+    // Higher means harder within a difficulty band; sort by difficulty first, then score.
+    public int getScore() {
+        return score;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    // The hardest technique the logical pass needed, or null if the board was already full.
+    public Technique getHardestTechnique() {
+        return hardest;
+    }
+
+    // How many times a technique was applied during the logical pass.
+    public int getCount(Technique technique) {
+        return techniqueCounts[technique.ordinal()];
+    }
+
+    // Backtracking nodes the solver needed after logic got stuck; 0 if logic alone solved it.
+    public long getSearchNodes() {
+        return searchNodes;
+    }
+
+    public boolean isSolvedLogically() {
+        return searchNodes == 0;
+    }
+
+    @Override
+    public String toString() {
+        return difficulty + " (" + score + ")" + (hardest == null ? "" : ", hardest: " + hardest.getDisplayName())
+                + (searchNodes > 0 ? ", search nodes: " + searchNodes : "");
+    }
+}
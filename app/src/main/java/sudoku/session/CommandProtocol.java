@@ -0,0 +1,187 @@
+package sudoku.session;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import sudoku.Board;
+import sudoku.cache.AnalysisCache;
+import sudoku.generator.PuzzleGenerator;
+import sudoku.hint.Hint;
+import sudoku.metrics.Metrics;
+import sudoku.metrics.MetricsRegistry;
+import sudoku.rating.Difficulty;
+
+// Line-based command protocol for game sessions. One command per line, words
+// separated by spaces, rows and columns counted from 0:
+//
+//   NEW <81 digits, 0 or . for empty>    -> OK <id>
+//   GEN <seed> [EASY|MEDIUM|HARD|EXTREME] -> OK <id>
+//   SET <id> <row> <col> <value 0-9>      -> OK|MISTAKE|SOLVED <score> <mistakes>
+//   UNDO <id> / REDO <id>                 -> OK <row> <col> <value now in the cell>
+//   HINT <id>                             -> OK PLACE <technique> <row> <col> <value> [AFTER <technique> ...]
+//   SHOW <id>                             -> OK <81 digits> <score> <mistakes>
+//   CLOSE <id>                            -> OK
+//   METRICS                               -> OK <metrics as one line of JSON>
+//
+// SET with value 0 clears the cell. HINT always names a value to place; when it takes
+// eliminations to find it, AFTER lists their techniques in the order they apply.
+// Failures are answered with "ERR <message>". Replies are produced asynchronously;
+// commands for one session are applied in the order they were handled.
+public final class CommandProtocol {
+    private final SessionManager sessions;
+    private final PuzzleGenerator generator = new PuzzleGenerator();
+    private final AnalysisCache analysis = new AnalysisCache();
+
+    public CommandProtocol(SessionManager sessions) {
+        this.sessions = sessions;
+    }
+
+    // Parses and dispatches one command. The returned future never fails; errors
+    // become ERR replies.
+    public CompletableFuture<String> handle(String line) {
+        CompletableFuture<String> reply;
+        try {
+            reply = dispatch(line.trim().split("\\s+"));
+        } catch (IllegalArgumentException e) {
+            reply = CompletableFuture.failedFuture(e);
+        }
+        return reply.exceptionally(CommandProtocol::error);
+    }
+
+    private CompletableFuture<String> dispatch(String[] words) {
+        switch (words[0].toUpperCase(Locale.ROOT)) {
+            case "NEW":
+                expect(words, 2);
+                return CompletableFuture.completedFuture("OK " + sessions.create(parsePuzzle(words[1])));
+            case "GEN":
+                if (words.length != 2 && words.length != 3) {
+                    throw new IllegalArgumentException("Usage: GEN <seed> [difficulty]");
+                }
+                long seed = parseLong(words[1]);
+                Difficulty difficulty = words.length == 3 ? parseDifficulty(words[2]) : null;
+                // Generated on the connection's thread, so the session exists before the next command is read.
+                int[] generated = (difficulty == null ? generator.generate(seed) : generator.generate(seed, difficulty)).getPuzzle();
+                return CompletableFuture.completedFuture("OK " + sessions.create(generated));
+            case "SET":
+                expect(words, 5);
+                int row = parseInt(words[2]);
+                int col = parseInt(words[3]);
+                int value = parseInt(words[4]);
+                if (value < 0 || value > 9) {
+                    throw new IllegalArgumentException("Value must be 0-9 (0 clears the cell).");
+                }
+                return sessions.submit(parseLong(words[1]), session -> {
+                    boolean legal = session.play(row, col, value);
+                    String verdict = !legal ? "MISTAKE" : session.isSolved() ? "SOLVED" : "OK";
+                    return verdict + " " + session.getScore() + " " + session.getMistakes();
+                });
+            case "UNDO":
+                expect(words, 2);
+                return sessions.submit(parseLong(words[1]), session -> {
+                    Board.Move move = session.undo();
+                    return move == null ? "ERR Nothing to undo." : "OK " + move.getRow() + " " + move.getCol() + " " + move.getOldValue();
+                });
+            case "REDO":
+                expect(words, 2);
+                return sessions.submit(parseLong(words[1]), session -> {
+                    Board.Move move = session.redo();
+                    return move == null ? "ERR Nothing to redo." : "OK " + move.getRow() + " " + move.getCol() + " " + move.getNewValue();
+                });
+            case "HINT":
+                expect(words, 2);
+                return sessions.submit(parseLong(words[1]), session -> formatHint(session.hint(analysis)));
+            case "SHOW":
+                expect(words, 2);
+                return sessions.submit(parseLong(words[1]), CommandProtocol::show);
+            case "CLOSE":
+                expect(words, 2);
+                return CompletableFuture.completedFuture(sessions.close(parseLong(words[1])) ? "OK" : "ERR No session " + words[1] + ".");
+            case "METRICS":
+                expect(words, 1);
+                if (!(Metrics.get() instanceof MetricsRegistry)) {
+                    throw new IllegalArgumentException("Metrics are off; start with -D" + Metrics.PROPERTY + "=json.");
+                }
+                return CompletableFuture.completedFuture("OK " + ((MetricsRegistry) Metrics.get()).toJson());
+            default:
+                throw new IllegalArgumentException("Unknown command " + words[0] + ".");
+        }
+    }
+
+    private static String show(GameSession session) {
+        StringBuilder sb = new StringBuilder(96).append("OK ");
+        for (int value : session.getBoard().toArray()) {
+            sb.append(value);
+        }
+        return sb.append(' ').append(session.getScore()).append(' ').append(session.getMistakes()).toString();
+    }
+
+    private static String formatHint(List<Hint> chain) {
+        if (chain.isEmpty()) {
+            return "ERR No hint available.";
+        }
+        Hint place = chain.get(chain.size() - 1);
+        StringBuilder sb = new StringBuilder("OK PLACE ").append(place.getTechnique()).append(' ')
+                .append(place.getRow()).append(' ').append(place.getCol()).append(' ').append(place.getValue());
+        if (chain.size() > 1) {
+            sb.append(" AFTER");
+            for (Hint elimination : chain.subList(0, chain.size() - 1)) {
+                sb.append(' ').append(elimination.getTechnique());
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String error(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        return "ERR " + cause.getMessage();
+    }
+
+    private static void expect(String[] words, int count) {
+        if (words.length != count) {
+            throw new IllegalArgumentException(words[0].toUpperCase(Locale.ROOT) + " takes " + (count - 1) + " argument(s).");
+        }
+    }
+
+    static int[] parsePuzzle(String text) {
+        if (text.length() != 81) {
+            throw new IllegalArgumentException("Puzzle must contain exactly 81 cells.");
+        }
+        int[] cells = new int[81];
+        for (int i = 0; i < 81; i++) {
+            char c = text.charAt(i);
+            if (c == '.') {
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Invalid cell '" + c + "' in puzzle.");
+            }
+            cells[i] = c - '0';
+        }
+        return cells;
+    }
+
+    private static Difficulty parseDifficulty(String text) {
+        try {
+            return Difficulty.valueOf(text.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown difficulty " + text + ".");
+        }
+    }
+
+    private static int parseInt(String text) {
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number: " + text + ".");
+        }
+    }
+
+    private static long parseLong(String text) {
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number: " + text + ".");
+        }
+    }
+}
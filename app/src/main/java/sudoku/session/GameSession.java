@@ -0,0 +1,103 @@
+package sudoku.session;
+
+import java.util.List;
+import sudoku.Board;
+import sudoku.cache.AnalysisCache;
+import sudoku.hint.Hint;
+import sudoku.metrics.Metrics;
+import sudoku.metrics.Timer;
+
+// One game: a board with its move journal, score and mistakes.
+//
+// Not thread-safe; a session is only touched by the tasks of its own mailbox
+// (see SessionManager), which run one at a time.
+public final class GameSession {
+    public static final int POINTS_PER_MOVE = 50;
+
+    private final long id;
+    private final Board board;
+    private final boolean[] givens = new boolean[81];
+    private int score;
+    private int mistakes;
+
+    GameSession(long id, int[] puzzle) {
+        this.id = id;
+        this.board = Board.fromArray(puzzle);
+        for (int i = 0; i < 81; i++) {
+            givens[i] = puzzle[i] != 0;
+        }
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getMistakes() {
+        return mistakes;
+    }
+
+    public boolean isGiven(int row, int col) {
+        return givens[row * 9 + col];
+    }
+
+    // Plays a value, scoring it the same way the desktop game does: a legal move that
+    // changes the cell earns points, an illegal one counts as a mistake. Value 0 clears
+    // the cell, which is never a mistake and earns nothing.
+    public boolean play(int row, int col, int value) {
+        checkCell(row, col);
+        if (value < 0 || value > 9) {
+            throw new IllegalArgumentException("Value " + value + " is outside 0-9.");
+        }
+        if (isGiven(row, col)) {
+            throw new IllegalArgumentException("Cell " + row + ", " + col + " is a given.");
+        }
+        if (value == 0) {
+            return board.setCell(row, col, 0, false);
+        }
+        int oldValue = board.getCell(row, col);
+        if (!board.setCell(row, col, value, false)) {
+            mistakes++;
+            return false;
+        }
+        if (oldValue != value) {
+            score += POINTS_PER_MOVE;
+        }
+        return true;
+    }
+
+    public Board.Move undo() {
+        return board.undoLastMove();
+    }
+
+    public Board.Move redo() {
+        return board.redoLastMove();
+    }
+
+    // The next placement logic finds on the current board, after the eliminations that
+    // lead to it (see AnalysisCache.hint); empty if there is none. Sessions at the same
+    // position share the cached answer.
+    public List<Hint> hint(AnalysisCache cache) {
+        long start = Metrics.startTimer();
+        List<Hint> hint = cache.hint(board);
+        Metrics.stopTimer(Timer.HINT, start);
+        return hint;
+    }
+
+    public boolean isSolved() {
+        return board.isSolved();
+    }
+
+    private static void checkCell(int row, int col) {
+        if (row < 0 || row > 8 || col < 0 || col > 8) {
+            throw new IllegalArgumentException("Cell " + row + ", " + col + " is outside the board.");
+        }
+    }
+}
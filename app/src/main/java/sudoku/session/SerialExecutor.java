@@ -0,0 +1,55 @@
+package sudoku.session;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Runs submitted tasks one at a time, in submission order, on a shared pool.
+//
+// This is the mailbox of a session actor: any number of threads may submit, but
+// at most one pool thread drains the queue at a time, so the session state needs
+// no locking. An idle mailbox holds no thread.
+final class SerialExecutor implements Executor {
+    // Tasks handled per scheduling before the pool thread is handed back, so one
+    // busy session cannot starve the others.
+    private static final int BATCH = 64;
+
+    private final Executor pool;
+    private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    SerialExecutor(Executor pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        mailbox.add(task);
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            pool.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            for (int i = 0; i < BATCH; i++) {
+                Runnable task = mailbox.poll();
+                if (task == null) {
+                    break;
+                }
+                task.run();
+            }
+        } finally {
+            scheduled.set(false);
+            // A task may have arrived after the last poll but before the flag was cleared.
+            if (!mailbox.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package sudoku.session;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Hosts many concurrent game sessions without a global lock.
+//
+// Each session is an actor: commands for it are queued on its own SerialExecutor
+// and run one at a time on a shared pool, while commands for different sessions
+// run in parallel. Sessions cost a board and a queue, not a thread, so tens of
+// thousands can be open at once.
+public final class SessionManager {
+    private final Executor pool;
+    private final Map<Long, Actor> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    // Runs sessions on the common fork-join pool.
+    public SessionManager() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public SessionManager(Executor pool) {
+        this.pool = pool;
+    }
+
+    // Opens a session for the puzzle and returns its id.
+    public long create(int[] puzzle) {
+        long id = nextId.getAndIncrement();
+        sessions.put(id, new Actor(new GameSession(id, puzzle), new SerialExecutor(pool)));
+        return id;
+    }
+
+    // Queues a command on the session's mailbox. The future completes exceptionally
+    // with IllegalArgumentException if the session does not exist or the command fails.
+    public <T> CompletableFuture<T> submit(long id, Function<GameSession, T> command) {
+        Actor actor = sessions.get(id);
+        if (actor == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("No session " + id + "."));
+        }
+        return CompletableFuture.supplyAsync(() -> command.apply(actor.session), actor.mailbox);
+    }
+
+    // Closes the session; commands already queued still run.
+    public boolean close(long id) {
+        return sessions.remove(id) != null;
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    private static final class Actor {
+        final GameSession session;
+        final SerialExecutor mailbox;
+
+        Actor(GameSession session, SerialExecutor mailbox) {
+            this.session = session;
+            this.mailbox = mailbox;
+        }
+    }
+}
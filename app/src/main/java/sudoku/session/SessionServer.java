@@ -0,0 +1,110 @@
+package sudoku.session;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import sudoku.metrics.Metrics;
+
+// Serves the session protocol (see CommandProtocol) over stdin/stdout or a local TCP port.
+//
+// A connection reads commands without waiting for earlier replies, so a client can
+// pipeline commands for many sessions; replies are still written in request order.
+// Once MAX_PENDING_REPLIES replies are waiting to be written, reading pauses until the
+// client catches up, and a failed write ends the connection. "QUIT" ends it as well.
+public final class SessionServer {
+    static final int MAX_PENDING_REPLIES = 256;
+
+    private final CommandProtocol protocol;
+
+    public SessionServer(SessionManager sessions) {
+        this.protocol = new CommandProtocol(sessions);
+    }
+
+    // Usage: SessionServer [port]. Without a port the server talks over stdin/stdout.
+    public static void main(String[] args) throws IOException {
+        Metrics.installFromSystemProperty();
+        SessionServer server = new SessionServer(new SessionManager());
+        if (args.length == 0) {
+            server.serve(System.in, System.out);
+            return;
+        }
+        server.listen(Integer.parseInt(args[0]));
+    }
+
+    // Accepts connections on the loopback interface until the process is stopped.
+    public void listen(int port) throws IOException {
+        try (ServerSocket socket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            while (true) {
+                Socket client = socket.accept();
+                Thread thread = new Thread(() -> serveQuietly(client), "sudoku-session-" + client.getPort());
+                thread.setDaemon(true);
+                thread.start();
+            }
+        }
+    }
+
+    // Handles commands from the input until QUIT or end of stream, then waits for
+    // the outstanding replies.
+    public void serve(InputStream in, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        CompletableFuture<Void> written = CompletableFuture.completedFuture(null);
+        Semaphore pending = new Semaphore(MAX_PENDING_REPLIES);
+        String line;
+        // Once a write has failed no later reply can be delivered, so stop taking commands.
+        while (!written.isCompletedExceptionally() && (line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (line.trim().equalsIgnoreCase("QUIT")) {
+                break;
+            }
+            pending.acquireUninterruptibly();
+            // Chain each reply behind the previous one so they go out in request order.
+            written = written.thenCombine(protocol.handle(line), (ignored, reply) -> {
+                write(writer, reply);
+                return null;
+            });
+            written.whenComplete((ignored, failure) -> pending.release());
+        }
+        try {
+            written.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw e;
+        }
+        writer.flush();
+    }
+
+    private void serveQuietly(Socket client) {
+        try (client) {
+            serve(client.getInputStream(), client.getOutputStream());
+        } catch (IOException e) {
+            System.err.println("Session connection closed: " + e.getMessage());
+        }
+    }
+
+    private static void write(Writer writer, String reply) {
+        try {
+            writer.write(reply);
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package sudoku.solver;
+
+import java.util.concurrent.atomic.AtomicLong;
+import sudoku.Geometry;
+import sudoku.metrics.Metrics;
+import sudoku.metrics.Timer;
+
+// Backtracking solver over row/column/box bitmasks.
+// Always branches on the empty cell with the fewest candidates (MRV), which
+// also fills naked singles before any real guessing happens. Works on any grid size
+// the Geometry supports; candidate masks stay single ints up to 25 values.
+public final class BitmaskSolver implements Solver {
+
+    @Override
+    public SolveResult solve(int[] cells) {
+        Geometry geometry = Solver.checkGrid(cells);
+        long start = System.nanoTime();
+        Search search = new Search(geometry);
+        boolean solved = search.load(cells) && search.run();
+        long nanos = System.nanoTime() - start;
+        Metrics.record(Timer.SOLVE, nanos);
+        return new SolveResult(solved ? search.grid : null, search.nodes, nanos);
+    }
+
+    // Counts the solutions of a grid, stopping as soon as limit is reached.
+    // countSolutions(cells, 2) == 1 is the usual uniqueness check.
+    public int countSolutions(int[] cells, int limit) {
+        Search search = new Search(Solver.checkGrid(cells));
+        if (!search.load(cells)) {
+            return 0;
+        }
+        search.count(limit);
+        return search.solutions;
+    }
+
+    // Mutable search state; one instance per solve so the solver itself stays thread-safe.
+    static final class Search {
+        final int[] rowOf;
+        final int[] colOf;
+        final int[] boxOf;
+        final int all;
+        final int[] grid;
+        final int[] rows;
+        final int[] cols;
+        final int[] boxes;
+        final int[] empties;
+        int emptyCount;
+        long nodes;
+        int solutions;
+
+        private Search(Search other) {
+            rowOf = other.rowOf;
+            colOf = other.colOf;
+            boxOf = other.boxOf;
+            all = other.all;
+            grid = other.grid.clone();
+            rows = other.rows.clone();
+            cols = other.cols.clone();
+            boxes = other.boxes.clone();
+            empties = other.empties.clone();
+            emptyCount = other.emptyCount;
+        }
+
+        Search(Geometry geometry) {
+            rowOf = geometry.rows();
+            colOf = geometry.cols();
+            boxOf = geometry.boxes();
+            all = geometry.getAllValues();
+            int size = geometry.getSize();
+            grid = new int[geometry.getCellCount()];
+            rows = new int[size];
+            cols = new int[size];
+            boxes = new int[size];
+            empties = new int[grid.length];
+        }
+
+        // Copies the givens in; returns false if two givens clash.
+        boolean load(int[] cells) {
+            emptyCount = 0;
+            for (int i = 0; i < grid.length; i++) {
+                int value = cells[i];
+                grid[i] = value;
+                if (value == 0) {
+                    empties[emptyCount++] = i;
+                    continue;
+                }
+                int bit = 1 << (value - 1);
+                if (((rows[rowOf[i]] | cols[colOf[i]] | boxes[boxOf[i]]) & bit) != 0) {
+                    return false;
+                }
+                rows[rowOf[i]] |= bit;
+                cols[colOf[i]] |= bit;
+                boxes[boxOf[i]] |= bit;
+            }
+            return true;
+        }
+
+        int candidates(int cell) {
+            return ~(rows[rowOf[cell]] | cols[colOf[cell]] | boxes[boxOf[cell]]) & all;
+        }
+
+        // Moves the most constrained empty cell to the end of the empties list and returns it,
+        // or -1 if some empty cell has no candidates left.
+        int pickCell() {
+            int best = -1;
+            int bestCount = Integer.MAX_VALUE;
+            for (int i = 0; i < emptyCount; i++) {
+                int count = Integer.bitCount(candidates(empties[i]));
+                if (count < bestCount) {
+                    bestCount = count;
+                    best = i;
+                    if (count <= 1) {
+                        break;
+                    }
+                }
+            }
+            if (bestCount == 0) {
+                return -1;
+            }
+            int cell = empties[best];
+            empties[best] = empties[emptyCount - 1];
+            empties[emptyCount - 1] = cell;
+            return cell;
+        }
+
+        void set(int cell, int bit) {
+            rows[rowOf[cell]] |= bit;
+            cols[colOf[cell]] |= bit;
+            boxes[boxOf[cell]] |= bit;
+            grid[cell] = Integer.numberOfTrailingZeros(bit) + 1;
+        }
+
+        void clear(int cell, int bit) {
+            rows[rowOf[cell]] &= ~bit;
+            cols[colOf[cell]] &= ~bit;
+            boxes[boxOf[cell]] &= ~bit;
+            grid[cell] = 0;
+        }
+
+        // Depth-first search; leaves the first solution found in grid.
+        boolean run() {
+            if (emptyCount == 0) {
+                return true;
+            }
+            int cell = pickCell();
+            if (cell < 0) {
+                return false;
+            }
+            emptyCount--;
+            for (int mask = candidates(cell); mask != 0; mask &= mask - 1) {
+                int bit = mask & -mask;
+                nodes++;
+                set(cell, bit);
+                if (run()) {
+                    return true;
+                }
+                clear(cell, bit);
+            }
+            emptyCount++;
+            return false;
+        }
+
+        // Depth-first search that keeps going after a solution until limit solutions are seen.
+        void count(int limit) {
+            if (emptyCount == 0) {
+                solutions++;
+                return;
+            }
+            int cell = pickCell();
+            if (cell < 0) {
+                return;
+            }
+            emptyCount--;
+            for (int mask = candidates(cell); mask != 0 && solutions < limit; mask &= mask - 1) {
+                int bit = mask & -mask;
+                nodes++;
+                set(cell, bit);
+                count(limit);
+                clear(cell, bit);
+            }
+            emptyCount++;
+        }
+
+        // Independent copy of the current state, for handing a subtree to another thread.
+        Search copy() {
+            return new Search(this);
+        }
+
+        // Like count, but adds every solution to a counter shared with other subtrees and
+        // stops as soon as that counter reaches limit.
+        void count(AtomicLong found, long limit) {
+            if (emptyCount == 0) {
+                found.incrementAndGet();
+                return;
+            }
+            int cell = pickCell();
+            if (cell < 0) {
+                return;
+            }
+            emptyCount--;
+            for (int mask = candidates(cell); mask != 0 && found.get() < limit; mask &= mask - 1) {
+                int bit = mask & -mask;
+                nodes++;
+                set(cell, bit);
+                count(found, limit);
+                clear(cell, bit);
+            }
+            emptyCount++;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package sudoku.solver;
+
+import sudoku.Geometry;
+import sudoku.metrics.Metrics;
+import sudoku.metrics.Timer;
+
+// Knuth's Algorithm X with Dancing Links over the Sudoku exact cover matrix; 324 columns
+// for a 9x9 grid. Columns: N*N cell constraints, then N*N row/value, N*N column/value and
+// N*N box/value constraints. Each of the N*N*N candidate rows (cell, value) covers
+// exactly four columns.
+public final class DancingLinksSolver implements Solver {
+
+    @Override
+    public SolveResult solve(int[] cells) {
+        Geometry geometry = Solver.checkGrid(cells);
+        int size = geometry.getSize();
+        long start = System.nanoTime();
+        Matrix matrix = new Matrix(geometry);
+        int[] solution = null;
+        if (matrix.placeGivens(cells) && matrix.search()) {
+            solution = cells.clone();
+            for (int i = 0; i < matrix.depth; i++) {
+                int row = matrix.chosen[i];
+                solution[row / size] = row % size + 1;
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        Metrics.record(Timer.SOLVE, nanos);
+        return new SolveResult(solution, matrix.nodes, nanos);
+    }
+
+    // Array-based node storage; index 0 is the root and the column headers follow it.
+    private static final class Matrix {
+        final int n;
+        final int[] left;
+        final int[] right;
+        final int[] up;
+        final int[] down;
+        final int[] column;
+        final int[] rowOf;
+        final int[] size;
+        final int[] firstNode;
+        final int[] chosen;
+        int depth;
+        long nodes;
+
+        Matrix(Geometry geometry) {
+            n = geometry.getSize();
+            int cellCount = geometry.getCellCount();
+            int columns = 4 * cellCount;
+            int rows = cellCount * n;
+            left = new int[1 + columns + rows * 4];
+            right = new int[left.length];
+            up = new int[left.length];
+            down = new int[left.length];
+            column = new int[left.length];
+            rowOf = new int[left.length];
+            size = new int[1 + columns];
+            firstNode = new int[rows];
+            chosen = new int[cellCount];
+            for (int c = 0; c <= columns; c++) {
+                left[c] = c - 1;
+                right[c] = c + 1;
+                up[c] = c;
+                down[c] = c;
+            }
+            left[0] = columns;
+            right[columns] = 0;
+
+            int node = columns + 1;
+            for (int row = 0; row < rows; row++) {
+                int cell = row / n;
+                int value = row % n;
+                int r = geometry.row(cell);
+                int c = geometry.col(cell);
+                int b = geometry.box(cell);
+                int[] cols = {
+                    1 + cell,
+                    1 + cellCount + r * n + value,
+                    1 + 2 * cellCount + c * n + value,
+                    1 + 3 * cellCount + b * n + value
+                };
+                firstNode[row] = node;
+                for (int k = 0; k < 4; k++) {
+                    int col = cols[k];
+                    column[node] = col;
+                    rowOf[node] = row;
+                    up[node] = up[col];
+                    down[node] = col;
+                    down[up[col]] = node;
+                    up[col] = node;
+                    size[col]++;
+                    left[node] = k == 0 ? node + 3 : node - 1;
+                    right[node] = k == 3 ? node - 3 : node + 1;
+                    node++;
+                }
+            }
+        }
+
+        void cover(int col) {
+            right[left[col]] = right[col];
+            left[right[col]] = left[col];
+            for (int i = down[col]; i != col; i = down[i]) {
+                for (int j = right[i]; j != i; j = right[j]) {
+                    down[up[j]] = down[j];
+                    up[down[j]] = up[j];
+                    size[column[j]]--;
+                }
+            }
+        }
+
+        void uncover(int col) {
+            for (int i = up[col]; i != col; i = up[i]) {
+                for (int j = left[i]; j != i; j = left[j]) {
+                    size[column[j]]++;
+                    down[up[j]] = j;
+                    up[down[j]] = j;
+                }
+            }
+            right[left[col]] = col;
+            left[right[col]] = col;
+        }
+
+        // Removes the columns satisfied by the givens; returns false if two givens clash.
+        boolean placeGivens(int[] cells) {
+            boolean[] covered = new boolean[size.length];
+            for (int cell = 0; cell < cells.length; cell++) {
+                if (cells[cell] == 0) {
+                    continue;
+                }
+                int node = firstNode[cell * n + cells[cell] - 1];
+                for (int k = 0; k < 4; k++) {
+                    if (covered[column[node + k]]) {
+                        return false;
+                    }
+                }
+                for (int k = 0; k < 4; k++) {
+                    covered[column[node + k]] = true;
+                    cover(column[node + k]);
+                }
+            }
+            return true;
+        }
+
+        // Chooses the column with the fewest rows left (Knuth's S heuristic).
+        boolean search() {
+            if (right[0] == 0) {
+                return true;
+            }
+            int best = right[0];
+            for (int c = right[best]; c != 0; c = right[c]) {
+                if (size[c] < size[best]) {
+                    best = c;
+                }
+            }
+            if (size[best] == 0) {
+                return false;
+            }
+            cover(best);
+            for (int r = down[best]; r != best; r = down[r]) {
+                nodes++;
+                chosen[depth++] = rowOf[r];
+                for (int j = right[r]; j != r; j = right[j]) {
+                    cover(column[j]);
+                }
+                if (search()) {
+                    return true;
+                }
+                for (int j = left[r]; j != r; j = left[j]) {
+                    uncover(column[j]);
+                }
+                depth--;
+            }
+            uncover(best);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package sudoku.solver;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import sudoku.Board;
+
+// Counts and enumerates every solution of a grid, splitting the search tree into
+// independent subtrees that run in parallel on a fork-join pool.
+//
+// The search is the bitmask solver's MRV backtracking. Within the first SPLIT_DEPTH
+// levels of the tree a node forks one task per candidate while the pool is short of
+// queued work; otherwise, and below that depth, the subtree runs sequentially.
+// All subtrees share one counter, so every task stops once the limit is reached.
+// Small trees (under MIN_SPLIT_EMPTIES empty cells) are searched on the calling
+// thread, where forking would cost more than it saves. Instances are thread-safe.
+public final class SolutionEnumerator {
+    static final int SPLIT_DEPTH = 6;
+    static final int MIN_SPLIT_EMPTIES = 40;
+    // Queued tasks beyond which a worker stops forking; keeps the task count near the core count.
+    static final int SURPLUS_TASKS = 3;
+
+    private final ForkJoinPool pool;
+
+    public SolutionEnumerator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public SolutionEnumerator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // Number of solutions of the grid, counting no further than limit.
+    // countSolutions(cells, 2) == 1 checks that a puzzle is proper.
+    public long countSolutions(int[] cells, long limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive.");
+        }
+        BitmaskSolver.Search search = new BitmaskSolver.Search(Solver.checkGrid(cells));
+        if (!search.load(cells)) {
+            return 0;
+        }
+        AtomicLong found = new AtomicLong();
+        if (search.emptyCount < MIN_SPLIT_EMPTIES) {
+            search.count(found, limit);
+        } else {
+            pool.invoke(new CountTask(search, found, limit, 0));
+        }
+        return Math.min(found.get(), limit);
+    }
+
+    public long countSolutions(Board board, long limit) {
+        return countSolutions(board.toArray(), limit);
+    }
+
+    // True when the grid has exactly one solution.
+    public boolean isUnique(int[] cells) {
+        return countSolutions(cells, 2) == 1;
+    }
+
+    // Lazily produces every solution as a new row-major array. The stream is parallel and
+    // unordered; its spliterator hands out subtrees, so limit(n) or findAny stop the search
+    // early. Use sequential() to generate solutions one at a time on the calling thread.
+    // A grid with clashing givens gives an empty stream.
+    public Stream<int[]> enumerateSolutions(int[] cells) {
+        BitmaskSolver.Search search = new BitmaskSolver.Search(Solver.checkGrid(cells));
+        SubtreeSpliterator spliterator = new SubtreeSpliterator();
+        if (search.load(cells)) {
+            spliterator.pending.add(search);
+        }
+        return StreamSupport.stream(spliterator, true);
+    }
+
+    public Stream<int[]> enumerateSolutions(Board board) {
+        return enumerateSolutions(board.toArray());
+    }
+
+    private static final class CountTask extends RecursiveAction {
+        private final BitmaskSolver.Search search;
+        private final AtomicLong found;
+        private final long limit;
+        private final int depth;
+
+        CountTask(BitmaskSolver.Search search, AtomicLong found, long limit, int depth) {
+            this.search = search;
+            this.found = found;
+            this.limit = limit;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (found.get() >= limit) {
+                return;
+            }
+            if (depth >= SPLIT_DEPTH || search.emptyCount < MIN_SPLIT_EMPTIES
+                    || getSurplusQueuedTaskCount() > SURPLUS_TASKS) {
+                search.count(found, limit);
+                return;
+            }
+            List<CountTask> children = new ArrayList<>();
+            for (BitmaskSolver.Search child : expand(search)) {
+                children.add(new CountTask(child, found, limit, depth + 1));
+            }
+            if (children.size() == 1) {
+                // A forced move: no point in a fork, keep going on this thread.
+                children.get(0).compute();
+            } else {
+                invokeAll(children);
+            }
+        }
+    }
+
+    // Branches on the most constrained empty cell: one copy of the state per candidate.
+    // A solved state is returned as is; a dead end gives no children.
+    static List<BitmaskSolver.Search> expand(BitmaskSolver.Search search) {
+        List<BitmaskSolver.Search> children = new ArrayList<>();
+        if (search.emptyCount == 0) {
+            children.add(search);
+            return children;
+        }
+        int cell = search.pickCell();
+        if (cell < 0) {
+            return children;
+        }
+        search.emptyCount--;
+        for (int mask = search.candidates(cell); mask != 0; mask &= mask - 1) {
+            BitmaskSolver.Search child = search.copy();
+            child.set(cell, mask & -mask);
+            children.add(child);
+        }
+        return children;
+    }
+
+    // Hands out subtrees that have not been started yet. trySplit gives away half of
+    // them, expanding the tree further when only one is left; tryAdvance walks the
+    // subtrees one after another, yielding one solution per call.
+    private static final class SubtreeSpliterator implements Spliterator<int[]> {
+        final ArrayDeque<BitmaskSolver.Search> pending = new ArrayDeque<>();
+        private Walk current;
+        // The real size is unknown; halving a nominal estimate on every split lets the
+        // stream framework stop splitting after about log2(4 * parallelism) levels.
+        private long estimate = Long.MAX_VALUE;
+        private int expansions; // Tree levels already expanded to produce these subtrees.
+
+        @Override
+        public boolean tryAdvance(Consumer<? super int[]> action) {
+            while (true) {
+                if (current == null) {
+                    BitmaskSolver.Search next = pending.poll();
+                    if (next == null) {
+                        return false;
+                    }
+                    current = new Walk(next);
+                }
+                if (current.next()) {
+                    action.accept(current.search.grid.clone());
+                    return true;
+                }
+                current = null;
+            }
+        }
+
+        @Override
+        public Spliterator<int[]> trySplit() {
+            if (current != null) {
+                return null;
+            }
+            // Expand a lone subtree until there is something to share, but only a few levels:
+            // deep down the subtrees are too small to be worth another thread.
+            while (pending.size() == 1 && expansions < SPLIT_DEPTH) {
+                BitmaskSolver.Search only = pending.peek();
+                if (only.emptyCount < MIN_SPLIT_EMPTIES) {
+                    return null;
+                }
+                pending.poll();
+                pending.addAll(expand(only));
+                expansions++;
+            }
+            int half = pending.size() / 2;
+            if (half == 0) {
+                return null;
+            }
+            SubtreeSpliterator prefix = new SubtreeSpliterator();
+            for (int i = 0; i < half; i++) {
+                prefix.pending.add(pending.poll());
+            }
+            estimate >>>= 1;
+            prefix.estimate = estimate;
+            prefix.expansions = expansions;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return pending.isEmpty() && current == null ? 0 : estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return NONNULL;
+        }
+    }
+
+    // Iterative depth-first search over one subtree, so solutions can be produced one
+    // at a time. Frame d holds the cell branched on, the candidates still to try and
+    // the bit currently placed there.
+    private static final class Walk {
+        final BitmaskSolver.Search search;
+        private final int[] cells;
+        private final int[] remaining;
+        private final int[] placed;
+        private int depth;
+        private boolean descend = true;
+
+        Walk(BitmaskSolver.Search search) {
+            this.search = search;
+            int maxDepth = search.emptyCount;
+            cells = new int[maxDepth];
+            remaining = new int[maxDepth];
+            placed = new int[maxDepth];
+        }
+
+        // Moves to the next solution, leaving it in search.grid; false when the subtree is done.
+        boolean next() {
+            while (true) {
+                if (descend) {
+                    descend = false;
+                    if (search.emptyCount == 0) {
+                        return true;
+                    }
+                    int cell = search.pickCell();
+                    if (cell >= 0) {
+                        search.emptyCount--;
+                        cells[depth] = cell;
+                        remaining[depth] = search.candidates(cell);
+                        placed[depth] = 0;
+                        depth++;
+                    }
+                }
+                if (depth == 0) {
+                    return false;
+                }
+                int frame = depth - 1;
+                if (placed[frame] != 0) {
+                    search.clear(cells[frame], placed[frame]);
+                    placed[frame] = 0;
+                }
+                if (remaining[frame] == 0) {
+                    search.emptyCount++;
+                    depth--;
+                    continue;
+                }
+                int bit = remaining[frame] & -remaining[frame];
+                remaining[frame] &= remaining[frame] - 1;
+                search.nodes++;
+                search.set(cells[frame], bit);
+                placed[frame] = bit;
+                descend = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package sudoku.solver;
+
+// Outcome of a single solve: the solved grid (or null) plus search statistics.
+public final class SolveResult {
+    private final int[] solution;
+    private final long nodes;
+    private final long nanos;
+
+    public SolveResult(int[] solution, long nodes, long nanos) {
+        this.solution = solution;
+        this.nodes = nodes;
+        this.nanos = nanos;
+    }
+
+    public boolean isSolved() {
+        return solution != null;
+    }
+
+    // The solved grid as row-major cells, or null when the puzzle has no solution.
+    public int[] getSolution() {
+        return solution;
+    }
+
+    // Number of search nodes (candidate placements) the engine tried.
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public double getMicros() {
+        return nanos / 1_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return (isSolved() ? "solved" : "unsolvable") + " in " + getMicros() + " us, " + nodes + " nodes";
+    }
+}
@@ -0,0 +1,33 @@
+package sudoku.solver;
+
+import sudoku.Board;
+import sudoku.Geometry;
+
+// Common entry point for the headless solving engines.
+// Grids are flat row-major arrays of 16, 81, 256 or 625 cells, 0 meaning empty.
+public interface Solver {
+
+    // Solves the grid without modifying it.
+    SolveResult solve(int[] cells);
+
+    // Solves the current state of a board without modifying it.
+    default SolveResult solve(Board board) {
+        return solve(board.toArray());
+    }
+
+    // Checks that a grid has a supported number of cells with values between 0 and its
+    // size, and returns its geometry.
+    static Geometry checkGrid(int[] cells) {
+        if (cells == null) {
+            throw new IllegalArgumentException("Grid must not be null.");
+        }
+        Geometry geometry = Geometry.forCellCount(cells.length);
+        int size = geometry.getSize();
+        for (int value : cells) {
+            if (value < 0 || value > size) {
+                throw new IllegalArgumentException("Grid contains values outside acceptable range (0-" + size + ").");
+            }
+        }
+        return geometry;
+    }
+}
@@ -0,0 +1,79 @@
+package sudoku;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+
+public class BoardSnapshotTest {
+
+    @Test
+    void testSnapshotIsReusedUntilTheBoardChanges() throws IOException {
+        Board board = TestPuzzles.board("boardEasy.txt");
+        BoardSnapshot first = board.snapshot();
+        assertSame(first, board.snapshot(), "Unchanged board should hand out the same snapshot");
+
+        int[] before = board.toArray();
+        board.setCell(0, 0, 4, false);
+        BoardSnapshot second = board.snapshot();
+        assertNotSame(first, second);
+        assertArrayEquals(before, first.toArray(), "Old snapshot must not see the move");
+        assertEquals(4, second.getCell(0, 0));
+
+        board.undoLastMove();
+        assertEquals(first, board.snapshot());
+        assertEquals(first.hashCode(), board.snapshot().hashCode());
+    }
+
+    @Test
+    void testWithLeavesTheOriginalAlone() throws IOException {
+        BoardSnapshot puzzle = TestPuzzles.board("boardEasy.txt").snapshot();
+        BoardSnapshot branch = puzzle.with(0, 0, 4);
+        assertEquals(0, puzzle.getCell(0, 0));
+        assertEquals(4, branch.getCell(0, 0));
+        assertEquals(puzzle.getFilledCount() + 1, branch.getFilledCount());
+        assertSame(branch, branch.with(0, 0, 4));
+        assertEquals(Board.zobristHash(branch.toArray()), branch.getZobristHash());
+        assertEquals(puzzle, branch.with(0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> puzzle.with(9, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> puzzle.with(0, 0, 10));
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        Board board = TestPuzzles.board("boardMedium.txt");
+        Board copy = board.snapshot().toBoard();
+        assertArrayEquals(board.toArray(), copy.toArray());
+        assertEquals(board.getZobristHash(), copy.getZobristHash());
+        assertTrue(copy.getAllMoves().isEmpty());
+
+        int[] cells = BoardTest.patternSolution(4);
+        BoardSnapshot large = BoardSnapshot.of(cells);
+        assertEquals(16, large.getSize());
+        assertTrue(large.toBoard().isSolved());
+        assertEquals(large.toString(), Board.fromArray(cells).toString());
+        assertThrows(IllegalArgumentException.class, () -> BoardSnapshot.of(new int[] {
+            5, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0}));
+    }
+
+    @Test
+    void testSharedAcrossThreads() throws Exception {
+        BoardSnapshot puzzle = TestPuzzles.board("boardHard.txt").snapshot();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] results = new Future<?>[9];
+            for (int value = 1; value <= 9; value++) {
+                int v = value;
+                results[value - 1] = pool.submit(() -> puzzle.with(0, 0, v).toBoard());
+            }
+            for (Future<?> result : results) {
+                assertNotNull(result.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(0, puzzle.getCell(0, 0));
+    }
+}
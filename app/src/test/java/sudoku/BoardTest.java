@@ -6,6 +6,10 @@ import java.util.Set;
 import java.util.List;
 import java.util.Map;
 import java.util.Arrays;
+import java.util.ArrayList;
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
 
 
 public class BoardTest {
@@ -82,4 +86,321 @@ public class BoardTest {
         assertTrue(board.getAllMoves().isEmpty(), "All moves should be cleared");
     }
 
+    @Test
+    void testGetCandidateMask() {
+        board.setCell(0, 0, 5, false);
+        board.setCell(0, 1, 6, false);
+        board.setCell(1, 0, 7, false);
+        int expected = (1 << 0) | (1 << 1) | (1 << 2) | (1 << 3) | (1 << 7) | (1 << 8);
+        assertEquals(expected, board.getCandidateMask(0, 2), "Mask should match the possible values 1, 2, 3, 4, 8, 9");
+    }
+
+    @Test
+    void testUndoRestoresCandidates() {
+        board.setCell(4, 4, 3, false);
+        assertFalse(board.isLegal(4, 8, 3), "Value should be blocked in the same row");
+        board.undoLastMove();
+        assertTrue(board.isLegal(4, 8, 3), "Undo should free the value again");
+        assertEquals(0x1FF, board.getCandidateMask(4, 4), "Empty board should allow every value");
+    }
+
+    @Test
+    void testIsSolvedAndUndo() throws IOException {
+        Board solved = Board.loadBoard(new FileInputStream("../puzzles/easySolution.txt"), true);
+        assertTrue(solved.isSolved(), "Solution file should be solved");
+        assertTrue(solved.checkAndCompleteGrid(4, 4), "Every box of a solution is complete");
+
+        Board easy = Board.loadBoard(new FileInputStream("../puzzles/boardEasy.txt"), true);
+        assertFalse(easy.isSolved());
+        assertFalse(easy.checkAndCompleteGrid(0, 0));
+
+        // Fill the easy board from its solution, then step the last move back and forth.
+        int[] solution = solved.toArray();
+        for (int cell = 0; cell < 81; cell++) {
+            if (easy.getCell(cell / 9, cell % 9) == 0) {
+                assertTrue(easy.setCell(cell / 9, cell % 9, solution[cell], false));
+            }
+        }
+        assertTrue(easy.isSolved());
+        assertNotNull(easy.undoLastMove());
+        assertFalse(easy.isSolved(), "Undoing the last move leaves a cell empty");
+        assertNotNull(easy.redoLastMove());
+        assertTrue(easy.isSolved(), "Redo should complete the board again");
+    }
+
+    @Test
+    void testClearIsAMove() {
+        assertTrue(board.setCell(2, 2, 5, false));
+        assertTrue(board.setCell(2, 2, 0, false), "Clearing is always legal");
+        assertEquals(0, board.getCell(2, 2));
+        assertTrue(board.isLegal(2, 7, 5), "The cleared value is free again");
+        assertFalse(board.setCell(2, 2, 10, false));
+        Board.Move undone = board.undoLastMove();
+        assertEquals(0, undone.getNewValue());
+        assertEquals(5, board.getCell(2, 2), "Undoing the clear restores the value");
+    }
+
+    @Test
+    void testConflictingCells() {
+        assertTrue(board.conflictingCells().isEmpty());
+        board.setCell(0, 0, 4, true);
+        board.setCell(0, 8, 4, true);
+        List<int[]> conflicts = board.conflictingCells();
+        assertEquals(2, conflicts.size(), "Both copies of the duplicate should be reported");
+        board.setCell(0, 8, 0, true);
+        assertTrue(board.conflictingCells().isEmpty(), "Clearing a copy removes the conflict");
+        assertFalse(board.isLegal(5, 0, 4), "The remaining copy still blocks its column");
+    }
+
+    @Test
+    void testUnitCompletionEvents() throws IOException {
+        Board easy = Board.loadBoard(new FileInputStream("../puzzles/boardEasy.txt"), true);
+        int[] solution = Board.loadBoard(new FileInputStream("../puzzles/easySolution.txt"), true).toArray();
+        List<String> events = new ArrayList<>();
+        easy.addBoardListener(new BoardListener() {
+            @Override
+            public void unitCompleted(Unit unit, int index) {
+                events.add(unit + " " + index);
+            }
+
+            @Override
+            public void boardSolved() {
+                events.add("solved");
+            }
+        });
+        for (int col = 0; col < 9; col++) {
+            if (!easy.hasValue(0, col)) {
+                easy.setCell(0, col, solution[col], false);
+            }
+        }
+        assertTrue(events.contains("ROW 0"), "Filling row 0 should complete it");
+        for (int i = 0; i < 81; i++) {
+            if (!easy.hasValue(i / 9, i % 9)) {
+                easy.setCell(i / 9, i % 9, solution[i], false);
+            }
+        }
+        assertTrue(easy.isSolved());
+        assertEquals("solved", events.get(events.size() - 1));
+        assertEquals(28, events.size(), "27 units plus the solved event");
+
+        easy.undoLastMove();
+        assertFalse(easy.isSolved(), "Undo should reopen the board");
+    }
+
+    @Test
+    void testDirtyCells() {
+        List<String> changes = new ArrayList<>();
+        board.addBoardListener(new BoardListener() {
+            @Override
+            public void cellChanged(int row, int col, int oldValue, int newValue) {
+                changes.add(row + "," + col + ":" + oldValue + "->" + newValue);
+            }
+        });
+        board.setCell(8, 8, 5, false);
+        board.setCell(0, 1, 3, false);
+        board.setCell(0, 2, 3, false); // rejected: same row
+        assertTrue(board.hasDirtyCells());
+        List<Integer> dirty = new ArrayList<>();
+        board.drainDirtyCells(dirty::add);
+        assertEquals(List.of(1, 80), dirty, "Changed cells in row-major order");
+        assertFalse(board.hasDirtyCells(), "Draining clears the set");
+
+        board.undoLastMove();
+        dirty.clear();
+        board.drainDirtyCells(dirty::add);
+        assertEquals(List.of(1), dirty, "Undo touches one cell");
+        assertEquals(List.of("8,8:0->5", "0,1:0->3", "0,1:3->0"), changes);
+    }
+
+    @Test
+    void testClearDirty() {
+        board.setCell(0, 0, 5, false);
+        board.setCell(4, 4, 6, false);
+        board.clearDirty(0, 0);
+        List<Integer> dirty = new ArrayList<>();
+        board.drainDirtyCells(dirty::add);
+        assertEquals(List.of(40), dirty, "Only the cell not cleared is left");
+
+        board.setCell(0, 0, 0, false);
+        board.clearDirty(0, 0);
+        assertFalse(board.hasDirtyCells());
+        board.undoLastMove();
+        dirty.clear();
+        board.drainDirtyCells(dirty::add);
+        assertEquals(List.of(0), dirty, "Undo marks the cell it restores");
+    }
+
+    @Test
+    void testRedoLastMove() {
+        board.setCell(2, 2, 7, false);
+        board.undoLastMove();
+        assertEquals(0, board.getCell(2, 2));
+        Board.Move redone = board.redoLastMove();
+        assertNotNull(redone, "Undone move should be redoable");
+        assertEquals(7, board.getCell(2, 2));
+        assertNull(board.redoLastMove(), "Nothing left to redo");
+        assertEquals(2, board.getAllMoves().size(), "History keeps the original move and the redo");
+    }
+
+    @Test
+    void testUndoRedoClear() {
+        board.setCell(0, 0, 5, false);
+        board.setCell(0, 0, 0, false);
+        board.undoLastMove();
+        assertEquals(5, board.getCell(0, 0), "Undoing the clear restores the value");
+        assertNotNull(board.redoLastMove(), "A clear should be redoable");
+        assertEquals(0, board.getCell(0, 0));
+        assertTrue(board.isLegal(0, 8, 5), "Redoing the clear frees the value again");
+    }
+
+    static int[] movesToSolve(int[] puzzle, int[] solution) {
+        List<Integer> moves = new ArrayList<>();
+        for (int i = 0; i < 81; i++) {
+            if (puzzle[i] == 0) {
+                moves.add(MoveJournal.pack(i / 9, i % 9, 0, solution[i]));
+            }
+        }
+        return moves.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Test
+    void testApplyMoves() throws IOException {
+        Board puzzle = Board.loadBoard(new FileInputStream("../puzzles/boardEasy.txt"), true);
+        int[] solution = Board.loadBoard(new FileInputStream("../puzzles/easySolution.txt"), true).toArray();
+        int[] moves = movesToSolve(puzzle.toArray(), solution);
+
+        MoveBatchResult partial = puzzle.applyMoves(Arrays.copyOf(moves, 10));
+        assertEquals(MoveBatchResult.Verdict.INCOMPLETE, partial.getVerdict());
+        assertEquals(-1, partial.getIllegalMoveIndex());
+
+        MoveBatchResult result = puzzle.applyMoves(Arrays.copyOfRange(moves, 10, moves.length));
+        assertEquals(MoveBatchResult.Verdict.SOLVED, result.getVerdict());
+        assertEquals(moves.length - 10, result.getApplied());
+        assertArrayEquals(solution, puzzle.toArray());
+        assertEquals(moves.length, puzzle.getAllMoves().size(), "Batch moves are journaled");
+        assertEquals(solution[80], puzzle.undoLastMove().getNewValue());
+    }
+
+    @Test
+    void testApplyMovesStopsAtFirstIllegalMove() {
+        int[] moves = {
+            MoveJournal.pack(0, 0, 0, 5),
+            MoveJournal.pack(0, 1, 0, 6),
+            MoveJournal.pack(1, 1, 0, 5), // same box as (0, 0)
+            MoveJournal.pack(2, 2, 0, 7),
+        };
+        MoveBatchResult result = board.applyMoves(moves);
+        assertEquals(MoveBatchResult.Verdict.REJECTED, result.getVerdict());
+        assertEquals(2, result.getIllegalMoveIndex());
+        assertEquals(moves[2], result.getIllegalMove());
+        assertEquals(6, board.getCell(0, 1));
+        assertEquals(0, board.getCell(2, 2), "Moves after the illegal one are not applied");
+
+        assertEquals(MoveBatchResult.Verdict.REJECTED, new Board().applyMoves(new int[] {MoveJournal.pack(9, 0, 0, 1)}).getVerdict());
+        assertEquals(MoveBatchResult.Verdict.REJECTED, new Board().applyMoves(new int[] {MoveJournal.pack(0, 0, 0, 10)}).getVerdict());
+    }
+
+    @Test
+    void testApplyMovesClearsCells() {
+        int[] moves = {
+            MoveJournal.pack(0, 0, 0, 5),
+            MoveJournal.pack(0, 0, 0, 0), // clear it again
+            MoveJournal.pack(0, 8, 0, 5), // legal once (0, 0) is empty
+        };
+        MoveBatchResult result = board.applyMoves(moves);
+        assertEquals(MoveBatchResult.Verdict.INCOMPLETE, result.getVerdict());
+        assertEquals(3, result.getApplied());
+        assertEquals(0, board.getCell(0, 0));
+        assertEquals(5, board.getCell(0, 8));
+        board.undoLastMove();
+        board.undoLastMove();
+        assertEquals(5, board.getCell(0, 0), "Undoing the batched clear restores the value");
+    }
+
+    @Test
+    void testVerifySolution() throws IOException {
+        int[] puzzle = Board.loadBoard(new FileInputStream("../puzzles/boardEasy.txt"), true).toArray();
+        int[] solution = Board.loadBoard(new FileInputStream("../puzzles/easySolution.txt"), true).toArray();
+        assertTrue(Board.verifySolution(solution));
+        assertTrue(Board.verifySolution(puzzle, solution));
+        assertFalse(Board.verifySolution(puzzle), "Empty cells are not a solution");
+
+        int[] swapped = solution.clone();
+        swapped[0] = solution[1];
+        swapped[1] = solution[0];
+        assertFalse(Board.verifySolution(swapped), "Swapping two cells breaks their columns");
+
+        int[] aliased = solution.clone();
+        for (int i = 0; i < 81; i++) {
+            if (aliased[i] == 1) {
+                aliased[i] = 33; // 1 << 32 == 1 << 0 in Java
+            }
+        }
+        assertFalse(Board.verifySolution(aliased), "Out-of-range values must not alias onto valid bits");
+
+        int[] otherGivens = puzzle.clone();
+        for (int i = 0; i < 81; i++) {
+            if (otherGivens[i] == 0) {
+                otherGivens[i] = solution[i] % 9 + 1;
+                break;
+            }
+        }
+        assertFalse(Board.verifySolution(otherGivens, solution), "Solution must keep the givens");
+        assertFalse(Board.verifySolution(new int[80]));
+    }
+
+    // A valid solution for any size: row r is row 0 shifted by (r % n) * n + r / n.
+    public static int[] patternSolution(int boxSize) {
+        int size = boxSize * boxSize;
+        int[] cells = new int[size * size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                cells[row * size + col] = (row % boxSize * boxSize + row / boxSize + col) % size + 1;
+            }
+        }
+        return cells;
+    }
+
+    @Test
+    void testOtherSizes() {
+        Board small = new Board(2);
+        assertEquals(4, small.getSize());
+        assertTrue(small.setCell(0, 0, 4, false));
+        assertFalse(small.setCell(0, 0, 5, false), "4x4 boards only take 1-4");
+        assertFalse(small.isLegal(1, 1, 4), "Same 2x2 box");
+        assertEquals(0b0111, small.getCandidateMask(3, 0));
+
+        for (int boxSize = 2; boxSize <= 5; boxSize++) {
+            int[] solution = patternSolution(boxSize);
+            assertTrue(Board.isValidBoard(solution));
+            assertTrue(Board.verifySolution(solution));
+            Board board = Board.fromArray(solution);
+            assertEquals(boxSize * boxSize, board.getSize());
+            assertTrue(board.isSolved());
+            assertEquals(Board.zobristHash(solution), board.getZobristHash());
+
+            int[] broken = solution.clone();
+            broken[0] = broken[1];
+            assertFalse(Board.verifySolution(broken));
+            assertFalse(Board.isValidBoard(broken));
+        }
+    }
+
+    @Test
+    void testLoadBoardInfersSize() {
+        StringBuilder text = new StringBuilder();
+        for (int value : patternSolution(4)) {
+            text.append(value).append(' ');
+        }
+        Board board = Board.loadBoard(new ByteArrayInputStream(text.toString().getBytes()), true);
+        assertEquals(16, board.getSize());
+        assertEquals(16, board.getCell(0, 15));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> Board.loadBoard(new FileInputStream("../puzzles/invalidBoard.txt"), true),
+                "25 cells is not a supported size");
+        assertThrows(IllegalArgumentException.class,
+                () -> Board.loadBoard(new ByteArrayInputStream("5 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0".getBytes()), true),
+                "4x4 boards only take 0-4");
+    }
 }
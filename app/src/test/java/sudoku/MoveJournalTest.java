@@ -0,0 +1,61 @@
+package sudoku;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class MoveJournalTest {
+
+    @Test
+    void testPackRoundTrip() {
+        int move = MoveJournal.pack(8, 7, 3, 9);
+        assertEquals(8, MoveJournal.row(move));
+        assertEquals(7, MoveJournal.col(move));
+        assertEquals(3, MoveJournal.oldValue(move));
+        assertEquals(9, MoveJournal.newValue(move));
+        assertNotEquals(MoveJournal.NONE, move);
+    }
+
+    @Test
+    void testUndoRedo() {
+        MoveJournal journal = new MoveJournal();
+        for (int i = 0; i < 100; i++) {
+            journal.push(MoveJournal.pack(i % 9, i / 9 % 9, 0, 1 + i % 9));
+        }
+        assertEquals(100, journal.size());
+        int last = journal.undo();
+        assertEquals(MoveJournal.pack(99 % 9, 99 / 9 % 9, 0, 1 + 99 % 9), last);
+        assertTrue(journal.canRedo());
+        assertEquals(last, journal.redo());
+        assertEquals(MoveJournal.NONE, journal.redo(), "Nothing left to redo");
+
+        journal.undo();
+        journal.push(MoveJournal.pack(0, 0, 0, 5));
+        assertFalse(journal.canRedo(), "A new move discards the redo tail");
+        assertEquals(100, journal.size());
+    }
+
+    @Test
+    void testBoundedCapacityDropsOldest() {
+        MoveJournal journal = new MoveJournal(8);
+        for (int i = 0; i < 20; i++) {
+            journal.push(MoveJournal.pack(0, 0, 0, i));
+        }
+        assertEquals(8, journal.size());
+        assertEquals(12, journal.getDropped());
+        assertEquals(12, MoveJournal.newValue(journal.get(0)), "Oldest retained move");
+        assertEquals(19, MoveJournal.newValue(journal.get(7)));
+        for (int i = 0; i < 8; i++) {
+            assertNotEquals(MoveJournal.NONE, journal.undo());
+        }
+        assertEquals(MoveJournal.NONE, journal.undo());
+    }
+
+    @Test
+    void testClear() {
+        MoveJournal journal = new MoveJournal();
+        journal.push(MoveJournal.pack(1, 2, 0, 3));
+        journal.clear();
+        assertTrue(journal.isEmpty());
+        assertEquals(MoveJournal.NONE, journal.undo());
+    }
+}
@@ -0,0 +1,22 @@
+package sudoku;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+
+// Loads the sample puzzles in the top-level puzzles directory for tests.
+public final class TestPuzzles {
+
+    private TestPuzzles() {
+    }
+
+    public static Board board(String name) throws IOException {
+        try (FileInputStream in = new FileInputStream("../puzzles/" + name)) {
+            return Board.loadBoard(in, true);
+        }
+    }
+
+    // Row-major cells of a sample puzzle, 0 for empty.
+    public static int[] cells(String name) throws IOException {
+        return board(name).toArray();
+    }
+}
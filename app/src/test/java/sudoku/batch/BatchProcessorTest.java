@@ -0,0 +1,87 @@
+package sudoku.batch;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import sudoku.Board;
+import sudoku.solver.BitmaskSolver;
+
+
+public class BatchProcessorTest {
+
+    static List<int[]> corpus(int copies) throws IOException {
+        List<int[]> puzzles = new ArrayList<>();
+        String[] names = {"boardEasy.txt", "boardMedium.txt", "boardHard.txt", "boardExtreme.txt"};
+        for (int i = 0; i < copies; i++) {
+            for (String name : names) {
+                puzzles.add(Board.loadBoard(new FileInputStream("../puzzles/" + name), true).toArray());
+            }
+        }
+        return puzzles;
+    }
+
+    @Test
+    void testOrderedResults() throws IOException {
+        List<int[]> puzzles = corpus(25);
+        List<BatchResult> results = new ArrayList<>();
+        ThroughputReport report = new BatchProcessor(new BitmaskSolver(), EnumSet.allOf(BatchProcessor.Operation.class), 4, 8, true)
+                .run(puzzles.iterator(), results::add);
+        assertEquals(100, report.getPuzzles());
+        assertEquals(100, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            BatchResult result = results.get(i);
+            assertEquals(i, result.getIndex(), "Results should come out in input order");
+            assertSame(puzzles.get(i), result.getPuzzle());
+            assertTrue(result.isValid());
+            assertTrue(result.getSolveResult().isSolved());
+            assertNotNull(result.getHints());
+        }
+        assertTrue(report.getPuzzlesPerSecond() > 0);
+    }
+
+    @Test
+    void testUnorderedCountsInvalid() throws IOException {
+        List<int[]> puzzles = corpus(10);
+        int[] duplicate = new int[81];
+        duplicate[0] = 4;
+        duplicate[1] = 4;
+        puzzles.add(duplicate);
+        List<BatchResult> results = new ArrayList<>();
+        ThroughputReport report = new BatchProcessor(new BitmaskSolver(), EnumSet.noneOf(BatchProcessor.Operation.class), 3, 2, false)
+                .run(puzzles.iterator(), results::add);
+        assertEquals(41, results.size());
+        assertEquals(1, report.getInvalid());
+        for (BatchResult result : results) {
+            assertNull(result.getSolveResult(), "Solving was not requested");
+        }
+    }
+
+    @Test
+    void testOtherSizes() {
+        int[] small = {
+            1, 0, 0, 4,
+            0, 4, 0, 0,
+            0, 0, 4, 0,
+            4, 0, 0, 1,
+        };
+        List<BatchResult> results = new ArrayList<>();
+        ThroughputReport report = new BatchProcessor().run(List.of(small, new int[80]).iterator(), results::add);
+        assertEquals(1, report.getInvalid(), "Only the 80-cell grid is invalid");
+        BatchResult result = results.get(0);
+        assertTrue(result.isValid());
+        assertTrue(result.getSolveResult().isSolved());
+        assertTrue(Board.verifySolution(result.getSolveResult().getSolution()));
+        assertNotNull(result.getHints());
+    }
+
+    @Test
+    void testSinkFailureIsRethrown() throws IOException {
+        BatchProcessor processor = new BatchProcessor();
+        assertThrows(IllegalStateException.class, () -> processor.run(corpus(5).iterator(), result -> {
+            throw new IllegalStateException("sink failed");
+        }));
+    }
+}
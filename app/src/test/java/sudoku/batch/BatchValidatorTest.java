@@ -0,0 +1,107 @@
+package sudoku.batch;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import sudoku.Board;
+import sudoku.generator.GeneratedPuzzle;
+import sudoku.generator.PuzzleGenerator;
+
+
+public class BatchValidatorTest {
+
+    // Solutions, their puzzles, and both with one or two random cells changed.
+    static List<int[]> boards(int seeds) {
+        PuzzleGenerator generator = new PuzzleGenerator();
+        Random random = new Random(42);
+        List<int[]> boards = new ArrayList<>();
+        for (int seed = 0; seed < seeds; seed++) {
+            GeneratedPuzzle generated = generator.generate(seed);
+            for (int[] cells : new int[][] {generated.getSolution(), generated.getPuzzle()}) {
+                boards.add(cells);
+                for (int changes = 1; changes <= 2; changes++) {
+                    int[] changed = cells.clone();
+                    for (int i = 0; i < changes; i++) {
+                        changed[random.nextInt(81)] = random.nextInt(10);
+                    }
+                    boards.add(changed);
+                }
+            }
+        }
+        return boards;
+    }
+
+    @Test
+    void testKernelInUse() {
+        // The vectorTest task runs this class again with the Vector API module and this property.
+        if (Boolean.getBoolean("sudoku.expectVectorized")) {
+            assertTrue(BatchValidator.isVectorized());
+            assertEquals(0, BatchValidator.STRIDE_ALIGNMENT % VectorKernel.lanes(), "Capacity must hold whole vectors");
+        }
+    }
+
+    @Test
+    void testMatchesBoardChecks() {
+        List<int[]> boards = boards(40);
+        BatchValidator batch = new BatchValidator(boards.size());
+        for (int[] cells : boards) {
+            batch.add(cells);
+        }
+        boolean[] valid = batch.validate();
+        boolean[] solved = batch.verifySolutions();
+        for (int i = 0; i < boards.size(); i++) {
+            assertEquals(Board.isValidBoard(boards.get(i)), valid[i], "validate, board " + i);
+            assertEquals(Board.verifySolution(boards.get(i)), solved[i], "verifySolutions, board " + i);
+        }
+    }
+
+    @Test
+    void testScalarKernelAgrees() {
+        List<int[]> boards = boards(70); // 420 boards: the last vector is partly filled at any lane count.
+        BatchValidator batch = new BatchValidator(boards.size());
+        for (int[] cells : boards) {
+            batch.add(cells);
+        }
+        for (boolean complete : new boolean[] {false, true}) {
+            boolean[] expected = complete ? batch.verifySolutions() : batch.validate();
+            boolean[] scalar = new boolean[boards.size()];
+            short[] cells = new short[81 * batch.capacity()];
+            for (int b = 0; b < boards.size(); b++) {
+                for (int c = 0; c < 81; c++) {
+                    cells[c * batch.capacity() + b] = (short) boards.get(b)[c];
+                }
+            }
+            BatchValidator.checkScalar(cells, batch.capacity(), boards.size(), complete, scalar);
+            assertArrayEquals(expected, scalar);
+        }
+    }
+
+    @Test
+    void testOutOfRangeAndReuse() {
+        int[] solution = new PuzzleGenerator().generate(7).getSolution();
+        BatchValidator batch = new BatchValidator(3);
+        assertEquals(BatchValidator.STRIDE_ALIGNMENT, batch.capacity());
+        assertEquals(0, BatchValidator.STRIDE_ALIGNMENT % BatchValidator.ALIGNMENT);
+        batch.add(solution);
+        int[] bad = solution.clone();
+        bad[0] = 17; // Would alias value 1 if lanes only kept the low bits of the shift.
+        batch.add(bad);
+        bad = solution.clone();
+        bad[40] = -3;
+        batch.add(bad);
+        assertArrayEquals(new boolean[] {true, false, false}, batch.verifySolutions());
+        assertArrayEquals(new boolean[] {true, false, false}, batch.validate());
+        assertThrows(IllegalArgumentException.class, () -> batch.add(new int[80]));
+
+        batch.clear();
+        assertEquals(0, batch.size());
+        batch.add(new int[81]);
+        assertArrayEquals(new boolean[] {true}, batch.validate());
+        assertArrayEquals(new boolean[] {false}, batch.verifySolutions());
+        while (!batch.isFull()) {
+            batch.add(solution);
+        }
+        assertThrows(IllegalStateException.class, () -> batch.add(solution));
+    }
+}
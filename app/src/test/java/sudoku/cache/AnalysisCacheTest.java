@@ -0,0 +1,127 @@
+package sudoku.cache;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import sudoku.Board;
+import sudoku.generator.GeneratedPuzzle;
+import sudoku.generator.PuzzleGenerator;
+import sudoku.hint.CandidateGrid;
+import sudoku.hint.Hint;
+import sudoku.hint.HintEngine;
+import sudoku.rating.Difficulty;
+import sudoku.solver.BitmaskSolver;
+import sudoku.solver.SolveResult;
+import sudoku.solver.Solver;
+import sudoku.TestPuzzles;
+
+
+public class AnalysisCacheTest {
+
+    @Test
+    void testZobristHashTracksContents() throws IOException {
+        Board board = TestPuzzles.board("boardEasy.txt");
+        long start = board.getZobristHash();
+        assertEquals(Board.zobristHash(board.toArray()), start);
+
+        board.setCell(0, 0, 1, false);
+        assertNotEquals(start, board.getZobristHash());
+        assertEquals(Board.zobristHash(board.toArray()), board.getZobristHash());
+        board.undoLastMove();
+        assertEquals(start, board.getZobristHash(), "Undo restores the hash");
+
+        assertEquals(0, new Board().getZobristHash(), "Empty cells contribute nothing");
+    }
+
+    @Test
+    void testRepeatedQueriesHitTheCache() throws IOException {
+        AtomicInteger solves = new AtomicInteger();
+        Solver counting = cells -> {
+            solves.incrementAndGet();
+            return new BitmaskSolver().solve(cells);
+        };
+        AnalysisCache cache = new AnalysisCache(100, counting);
+        Board board = TestPuzzles.board("boardHard.txt");
+        SolveResult first = cache.solve(board);
+        assertTrue(first.isSolved());
+        assertSame(first, cache.solve(TestPuzzles.board("boardHard.txt")), "Same position from another board");
+        assertSame(first, cache.solve(board.toArray()));
+        assertEquals(1, solves.get());
+
+        assertEquals(Difficulty.EASY, cache.rate(board).getDifficulty(), "Naked singles only");
+        assertSame(cache.rate(board), cache.rate(board));
+        List<Hint> chain = cache.hint(board);
+        assertEquals(1, chain.size(), "A naked single is there from the start");
+        assertSame(chain, cache.hint(board));
+        Hint hint = chain.get(0);
+        assertTrue(hint.isPlacement());
+
+        board.setCell(hint.getRow(), hint.getCol(), hint.getValue(), false);
+        assertNotSame(first, cache.solve(board), "A new position is a new entry");
+        assertEquals(2, cache.size());
+        assertTrue(cache.stats().hitCount() >= 6);
+    }
+
+    @Test
+    void testBoundedSize() throws IOException {
+        AnalysisCache cache = new AnalysisCache(2, new BitmaskSolver());
+        for (String name : new String[] {"boardEasy.txt", "boardMedium.txt", "boardHard.txt", "boardExtreme.txt"}) {
+            cache.solve(TestPuzzles.board(name));
+        }
+        assertTrue(cache.size() <= 2);
+        assertThrows(IllegalArgumentException.class, () -> new AnalysisCache(0, new BitmaskSolver()));
+    }
+
+    @Test
+    void testHintWalksPastEliminations() {
+        GeneratedPuzzle generated = new PuzzleGenerator().generate(42L, Difficulty.HARD);
+        // Play the placements logic finds until the next deduction is an elimination.
+        CandidateGrid grid = CandidateGrid.of(generated.getPuzzle());
+        HintEngine engine = new HintEngine();
+        Hint next;
+        while ((next = engine.findHint(grid)).isPlacement()) {
+            next.apply(grid);
+        }
+        int[] cells = new int[81];
+        for (int cell = 0; cell < 81; cell++) {
+            cells[cell] = grid.getValue(cell);
+        }
+
+        List<Hint> chain = new AnalysisCache().hint(Board.fromArray(cells));
+        assertTrue(chain.size() > 1, "The first deduction is an elimination");
+        for (Hint elimination : chain.subList(0, chain.size() - 1)) {
+            assertFalse(elimination.isPlacement());
+        }
+        Hint place = chain.get(chain.size() - 1);
+        assertTrue(place.isPlacement());
+        assertEquals(0, cells[place.getRow() * 9 + place.getCol()]);
+        assertEquals(generated.getSolution()[place.getRow() * 9 + place.getCol()], place.getValue());
+    }
+
+    @Test
+    void testConcurrentPlayersShareOneSolve() throws Exception {
+        AtomicInteger solves = new AtomicInteger();
+        Solver counting = cells -> {
+            solves.incrementAndGet();
+            return new BitmaskSolver().solve(cells);
+        };
+        AnalysisCache cache = new AnalysisCache(100, counting);
+        int[] cells = TestPuzzles.board("boardExtreme.txt").toArray();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<SolveResult>> results = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            results.add(pool.submit(() -> cache.solve(cells)));
+        }
+        SolveResult first = results.get(0).get();
+        for (Future<SolveResult> result : results) {
+            assertSame(first, result.get());
+        }
+        pool.shutdown();
+        assertEquals(1, solves.get());
+    }
+}
@@ -0,0 +1,138 @@
+package sudoku.canon;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import sudoku.Board;
+import sudoku.TestPuzzles;
+
+
+public class CanonicalizerTest {
+
+    static int[] permutation(Random random, int n) {
+        int[] p = new int[n];
+        for (int i = 0; i < n; i++) {
+            p[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = p[i];
+            p[i] = p[j];
+            p[j] = t;
+        }
+        return p;
+    }
+
+    // Maps each index 0-8 through a band permutation and a row permutation per band.
+    static int[] lines(Random random) {
+        int[] bands = permutation(random, 3);
+        int[] lines = new int[9];
+        for (int band = 0; band < 3; band++) {
+            int[] within = permutation(random, 3);
+            for (int i = 0; i < 3; i++) {
+                lines[band * 3 + i] = bands[band] * 3 + within[i];
+            }
+        }
+        return lines;
+    }
+
+    // Applies a random symmetry: relabelling, row and column permutations and maybe a transposition.
+    static int[] scramble(int[] cells, Random random) {
+        int[] digits = permutation(random, 9);
+        int[] rows = lines(random);
+        int[] cols = lines(random);
+        boolean transpose = random.nextBoolean();
+        int[] out = new int[81];
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                int value = cells[rows[r] * 9 + cols[c]];
+                int target = transpose ? c * 9 + r : r * 9 + c;
+                out[target] = value == 0 ? 0 : digits[value - 1] + 1;
+            }
+        }
+        return out;
+    }
+
+    @Test
+    void testInvariantUnderSymmetries() throws IOException {
+        Random random = new Random(7);
+        Canonicalizer canonicalizer = new Canonicalizer();
+        for (String name : new String[] {"boardEasy.txt", "boardMedium.txt", "boardHard.txt", "boardExtreme.txt", "easySolution.txt"}) {
+            int[] cells = TestPuzzles.cells(name);
+            int[] canonical = canonicalizer.canonicalize(cells);
+            for (int i = 0; i < 5; i++) {
+                assertArrayEquals(canonical, canonicalizer.canonicalize(scramble(cells, random)), name);
+            }
+            assertArrayEquals(canonical, Canonicalizer.canonicalForm(canonical), "Canonical form is a fixed point");
+        }
+    }
+
+    @Test
+    void testCanonicalFormIsAnEquivalentPuzzle() throws IOException {
+        int[] cells = TestPuzzles.cells("boardHard.txt");
+        int[] canonical = Canonicalizer.canonicalForm(cells);
+        assertTrue(Board.isValidBoard(canonical));
+        assertEquals(Arrays.stream(cells).filter(v -> v != 0).count(), Arrays.stream(canonical).filter(v -> v != 0).count());
+        assertEquals(1, canonical[0], "Digits are relabelled by first appearance, givens first");
+    }
+
+    @Test
+    void testDistinctPuzzlesStayDistinct() throws IOException {
+        assertFalse(Arrays.equals(Canonicalizer.canonicalForm(TestPuzzles.cells("boardEasy.txt")),
+                Canonicalizer.canonicalForm(TestPuzzles.cells("boardMedium.txt"))));
+        assertThrows(IllegalArgumentException.class, () -> Canonicalizer.canonicalForm(new int[80]));
+    }
+
+    @Test
+    void testNearlyEmptyGrids() {
+        Random random = new Random(5);
+        Canonicalizer canonicalizer = new Canonicalizer();
+        assertArrayEquals(new int[81], canonicalizer.canonicalize(new int[81]));
+        int[] one = new int[81];
+        one[40] = 7;
+        int[] expected = new int[81];
+        expected[0] = 1;
+        assertArrayEquals(expected, canonicalizer.canonicalize(one));
+        // A handful of givens ties most arrangements; this used to run out of memory.
+        int[] few = new int[81];
+        few[0] = 1;
+        few[80] = 2;
+        few[31] = 1;
+        int[] canonical = canonicalizer.canonicalize(few);
+        for (int i = 0; i < 5; i++) {
+            assertArrayEquals(canonical, canonicalizer.canonicalize(scramble(few, random)));
+        }
+    }
+
+    @Test
+    void testDedupIndex() throws IOException {
+        Random random = new Random(11);
+        DedupIndex index = new DedupIndex();
+        int[] easy = TestPuzzles.cells("boardEasy.txt");
+        int[] hard = TestPuzzles.cells("boardHard.txt");
+        assertTrue(index.add(easy));
+        assertTrue(index.add(hard));
+        assertFalse(index.add(scramble(easy, random)), "A relabelled, permuted copy is a duplicate");
+        assertTrue(index.contains(scramble(hard, random)));
+        assertEquals(2, index.size());
+        assertEquals(1, index.addIfAbsent(scramble(hard, random), 99), "Id of the first equivalent puzzle");
+        assertEquals(-1, index.addIfAbsent(TestPuzzles.cells("boardExtreme.txt"), 99));
+    }
+
+    @Test
+    void testParallelStreamDedup() throws IOException {
+        Random random = new Random(3);
+        List<int[]> originals = List.of(TestPuzzles.cells("boardEasy.txt"), TestPuzzles.cells("boardMedium.txt"), TestPuzzles.cells("boardHard.txt"), TestPuzzles.cells("boardExtreme.txt"));
+        List<int[]> corpus = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            corpus.add(scramble(originals.get(i % 4), random));
+        }
+        DedupIndex index = new DedupIndex();
+        List<int[]> distinct = corpus.parallelStream().filter(index::add).collect(Collectors.toList());
+        assertEquals(4, distinct.size());
+    }
+}
@@ -0,0 +1,106 @@
+package sudoku.cli;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import sudoku.Board;
+import sudoku.io.PuzzleStore;
+
+
+public class SudokuCliTest {
+    private static final String EASY_LINE =
+        "097000520302010800060427100000030040704500600019700308900001400800340270070256980";
+
+    private String stdout;
+    private String stderr;
+
+    private int run(String stdin, String... args) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int status = new SudokuCli(new ByteArrayInputStream(stdin.getBytes(StandardCharsets.US_ASCII)),
+                new PrintStream(out, true), new PrintStream(err, true)).run(args);
+        stdout = out.toString(StandardCharsets.US_ASCII);
+        stderr = err.toString(StandardCharsets.US_ASCII);
+        return status;
+    }
+
+    @Test
+    void testSolveFromFilesAndStdin() throws IOException {
+        int[] solution = Board.loadBoard(new FileInputStream("../puzzles/easySolution.txt"), false).toArray();
+        assertEquals(SudokuCli.OK, run("", "solve", "../puzzles/boardEasy.txt"));
+        assertEquals(SudokuCli.line(solution) + "\n", stdout);
+
+        assertEquals(SudokuCli.OK, run(EASY_LINE + "\n" + EASY_LINE + "\n", "solve"));
+        assertEquals(2, stdout.lines().count());
+
+        // A row with two 9s.
+        String clash = "99" + EASY_LINE.substring(2);
+        assertEquals(SudokuCli.FAILED, run(clash + "\n" + EASY_LINE + "\n", "solve", "-"));
+        assertTrue(stdout.startsWith("invalid\n"));
+        assertTrue(stdout.endsWith(SudokuCli.line(solution) + "\n"), "Later puzzles should still be solved");
+    }
+
+    @Test
+    void testValidate() {
+        String open = "0".repeat(81);
+        assertEquals(SudokuCli.FAILED, run(EASY_LINE + "\n" + open + "\n", "validate"));
+        assertEquals("valid\nmultiple\n", stdout);
+        assertEquals(SudokuCli.OK, run("", "validate", "../puzzles/boardHard.txt", "../puzzles/boardExtreme.txt"));
+        assertEquals("valid\nvalid\n", stdout);
+    }
+
+    @Test
+    void testRate() {
+        assertEquals(SudokuCli.OK, run("", "rate", "../puzzles/boardEasy.txt"));
+        assertTrue(stdout.startsWith("EASY"), stdout);
+    }
+
+    @Test
+    void testGenerateIsReproducible() {
+        assertEquals(SudokuCli.OK, run("", "generate", "--count", "2", "--seed", "7"));
+        String first = stdout;
+        assertEquals(2, first.lines().count());
+        run("", "generate", "--seed", "7", "--count", "2");
+        assertEquals(first, stdout);
+
+        assertEquals(SudokuCli.OK, run(first, "validate"));
+    }
+
+    @Test
+    void testConvertRoundTrip() throws IOException {
+        Path store = Files.createTempFile("puzzles", ".sdk");
+        try {
+            assertEquals(SudokuCli.OK, run("", "convert", "--to", "store", "--output", store.toString(),
+                    "../puzzles/boardEasy.txt", "../puzzles/boardHard.txt"));
+            try (PuzzleStore opened = PuzzleStore.open(store)) {
+                assertEquals(2, opened.size());
+            }
+
+            assertEquals(SudokuCli.OK, run("", "convert", "--from", "store", "--to", "grid", store.toString()));
+            String grids = stdout;
+            assertEquals(SudokuCli.OK, run(grids, "convert"));
+            assertTrue(stdout.startsWith(EASY_LINE + "\n"));
+            assertEquals(2, stdout.lines().count());
+        } finally {
+            Files.deleteIfExists(store);
+        }
+    }
+
+    @Test
+    void testUsageErrors() {
+        assertEquals(SudokuCli.USAGE, run(""));
+        assertEquals(SudokuCli.USAGE, run("", "play"));
+        assertTrue(stderr.contains("unknown command"));
+        assertEquals(SudokuCli.USAGE, run("", "generate", "--count"));
+        assertEquals(SudokuCli.USAGE, run("", "solve", "--count", "3"));
+        assertEquals(SudokuCli.USAGE, run("", "generate", "--difficulty", "impossible"));
+        assertEquals(SudokuCli.USAGE, run("", "solve", "../puzzles/missing.txt"));
+        assertEquals(SudokuCli.USAGE, run("1 2 3\n", "solve"));
+    }
+}
@@ -0,0 +1,63 @@
+package sudoku.generator;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import sudoku.rating.Difficulty;
+import sudoku.solver.BitmaskSolver;
+
+
+public class PuzzleGeneratorTest {
+    private final PuzzleGenerator generator = new PuzzleGenerator();
+    private final BitmaskSolver solver = new BitmaskSolver();
+
+    @Test
+    void testGeneratedPuzzleIsUnique() {
+        GeneratedPuzzle generated = generator.generate(1234L);
+        assertEquals(1, solver.countSolutions(generated.getPuzzle(), 2), "Puzzle must have exactly one solution");
+        assertArrayEquals(generated.getSolution(), solver.solve(generated.getPuzzle()).getSolution());
+    }
+
+    @Test
+    void testGeneratedPuzzleIsMinimal() {
+        int[] puzzle = generator.generate(99L).getPuzzle();
+        for (int i = 0; i < 81; i++) {
+            if (puzzle[i] != 0) {
+                int[] fewer = puzzle.clone();
+                fewer[i] = 0;
+                assertEquals(2, solver.countSolutions(fewer, 2), "Removing any clue should break uniqueness");
+            }
+        }
+    }
+
+    @Test
+    void testSameSeedSamePuzzle() {
+        assertArrayEquals(generator.generate(7L).getPuzzle(), new PuzzleGenerator().generate(7L).getPuzzle());
+        GeneratedPuzzle minimal = generator.generate(7L);
+        assertArrayEquals(minimal.getPuzzle(), generator.generate(minimal.getSeed()).getPuzzle());
+        assertNotEquals(Arrays.toString(generator.generate(7L).getPuzzle()),
+                Arrays.toString(generator.generate(8L).getPuzzle()));
+    }
+
+    @Test
+    void testDifficultyTargeting() {
+        for (Difficulty target : Difficulty.values()) {
+            GeneratedPuzzle generated = generator.generate(42L, target);
+            assertEquals(target, generated.getDifficulty());
+            assertEquals(target, PuzzleGenerator.grade(generated.getPuzzle()));
+            assertArrayEquals(generated.getPuzzle(), generator.generate(generated.getSeed(), target).getPuzzle(),
+                    "The reported seed should reproduce the puzzle");
+        }
+    }
+
+    @Test
+    void testParallelStreamIsReproducible() {
+        List<String> first = generator.stream(5L, Difficulty.EASY, 20)
+                .map(p -> Arrays.toString(p.getPuzzle())).collect(Collectors.toList());
+        List<String> second = generator.stream(5L, Difficulty.EASY, 20)
+                .map(p -> Arrays.toString(p.getPuzzle())).collect(Collectors.toList());
+        assertEquals(20, first.size());
+        assertEquals(first, second);
+    }
+}
@@ -0,0 +1,111 @@
+package sudoku.hint;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import sudoku.Board;
+import sudoku.BoardTest;
+import sudoku.generator.PuzzleGenerator;
+import sudoku.solver.BitmaskSolver;
+import sudoku.TestPuzzles;
+
+
+public class HintEngineTest {
+    private final HintEngine engine = new HintEngine();
+
+    // Applies hints until stuck, checking every step against the known solution.
+    private int checkAgainstSolution(int[] puzzle) {
+        int[] solution = new BitmaskSolver().solve(puzzle).getSolution();
+        CandidateGrid grid = CandidateGrid.of(puzzle);
+        int size = grid.getGeometry().getSize();
+        int steps = 0;
+        for (Hint hint; (hint = engine.findHint(grid)) != null; steps++) {
+            if (hint.isPlacement()) {
+                int cell = hint.getRow() * size + hint.getCol();
+                assertEquals(solution[cell], hint.getValue(), hint.toString());
+            } else {
+                for (int cell = 0; cell < puzzle.length; cell++) {
+                    int removed = hint.getEliminations(cell / size, cell % size);
+                    assertEquals(0, removed & 1 << (solution[cell] - 1), "Must not eliminate the solution: " + hint);
+                }
+            }
+            hint.apply(grid);
+        }
+        return steps;
+    }
+
+    @Test
+    void testEasyBoardSolvesWithSingles() throws IOException {
+        int[] puzzle = TestPuzzles.board("boardEasy.txt").toArray();
+        CandidateGrid grid = CandidateGrid.of(puzzle);
+        for (Hint hint; (hint = engine.findHint(grid)) != null; ) {
+            assertTrue(hint.getTechnique() == Technique.NAKED_SINGLE || hint.getTechnique() == Technique.HIDDEN_SINGLE);
+            hint.apply(grid);
+        }
+        assertTrue(grid.isSolved(), "Easy board needs nothing beyond singles");
+    }
+
+    @Test
+    void testHintsAreSound() throws IOException {
+        for (String name : new String[] {"boardMedium.txt", "boardHard.txt", "boardExtreme.txt"}) {
+            assertTrue(checkAgainstSolution(TestPuzzles.board(name).toArray()) > 0);
+        }
+        PuzzleGenerator generator = new PuzzleGenerator();
+        for (long seed = 0; seed < 30; seed++) {
+            checkAgainstSolution(generator.generate(seed).getPuzzle());
+        }
+    }
+
+    @Test
+    void testNakedSingleMatchesGetCellsForHints() throws IOException {
+        Board board = TestPuzzles.board("boardHard.txt");
+        Hint hint = engine.nextHint(board);
+        assertNotNull(hint);
+        if (hint.getTechnique() == Technique.NAKED_SINGLE) {
+            int[] first = board.getCellsForHints().get(0);
+            assertEquals(first[0], hint.getRow());
+            assertEquals(first[1], hint.getCol());
+        }
+        assertFalse(hint.getReasoning().isEmpty());
+    }
+
+    @Test
+    void testRepeatedRequestsAreCached() throws IOException {
+        Board board = TestPuzzles.board("boardEasy.txt");
+        Hint first = engine.nextHint(board);
+        assertTrue(first.isPlacement());
+        assertSame(first, engine.nextHint(board), "Unchanged board should reuse the cached hint");
+
+        board.setCell(first.getRow(), first.getCol(), first.getValue(), false);
+        Hint second = engine.nextHint(board);
+        assertNotSame(first, second);
+        assertFalse(second.getRow() == first.getRow() && second.getCol() == first.getCol(),
+                "Hint should move on once the cell is filled");
+
+        board.undoLastMove();
+        Hint again = engine.nextHint(board);
+        assertEquals(first.getRow(), again.getRow());
+        assertEquals(first.getCol(), again.getCol());
+    }
+
+    @Test
+    void testSmallAndLargeGrids() {
+        int[] small = {
+            1, 0, 0, 0,
+            0, 0, 1, 2,
+            0, 1, 0, 0,
+            0, 0, 2, 0};
+        Hint hint = engine.findHint(CandidateGrid.of(small));
+        assertTrue(hint.isPlacement());
+        assertTrue(hint.getRow() < 4 && hint.getCol() < 4);
+        assertTrue(checkAgainstSolution(small) > 0);
+
+        int[] large = BoardTest.patternSolution(4);
+        for (int i = 0; i < large.length; i += 3) {
+            large[i] = 0;
+        }
+        Board board = Board.fromArray(large);
+        Hint first = engine.nextHint(board);
+        assertNotNull(first);
+        assertTrue(first.getReasoning().length() > 0);
+    }
+}
@@ -0,0 +1,156 @@
+package sudoku.io;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+import sudoku.Board;
+import sudoku.MoveJournal;
+import sudoku.TestPuzzles;
+
+
+public class MoveLogTest {
+
+    // Fills the first n empty cells of the easy board with their solution values.
+    static void play(Board board, int n) throws IOException {
+        int[] solution = TestPuzzles.board("easySolution.txt").toArray();
+        for (int cell = 0; cell < 81 && n > 0; cell++) {
+            if (board.getCell(cell / 9, cell % 9) == 0) {
+                assertTrue(board.setCell(cell / 9, cell % 9, solution[cell], false));
+                n--;
+            }
+        }
+    }
+
+    static void assertSameGame(Board expected, Board actual) {
+        assertArrayEquals(expected.toArray(), actual.toArray());
+        MoveJournal want = expected.getUndoJournal();
+        MoveJournal got = actual.getUndoJournal();
+        assertEquals(want.size(), got.size(), "Undoable moves");
+        assertEquals(want.redoSize(), got.redoSize(), "Redoable moves");
+        for (int i = 0; i < want.size(); i++) {
+            assertEquals(want.get(i), got.get(i));
+        }
+        for (int i = 0; i < want.redoSize(); i++) {
+            assertEquals(want.getUndone(i), got.getUndone(i));
+        }
+    }
+
+    static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void testRecoversMovesUndosAndRedos() throws IOException {
+        Path directory = Files.createTempDirectory("autosave");
+        try {
+            assertNull(MoveLog.recover(directory));
+            Board board = TestPuzzles.board("boardEasy.txt");
+            MoveLog log = MoveLog.attach(directory, board);
+            play(board, 10);
+            board.undoLastMove();
+            board.undoLastMove();
+            board.undoLastMove();
+            board.redoLastMove();
+            log.sync();
+            // No close(): as far as the files are concerned the process died here.
+            assertSameGame(board, MoveLog.recover(directory));
+            assertEquals(MoveLog.HEADER_SIZE + 14 * MoveLog.RECORD_SIZE, Files.size(directory.resolve(MoveLog.LOG_FILE)));
+
+            Board recovered = MoveLog.recover(directory);
+            assertNotNull(recovered.redoLastMove(), "Redo history should survive");
+            log.close();
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    void testCompactionKeepsTheLogShort() throws IOException {
+        Path directory = Files.createTempDirectory("autosave");
+        try {
+            Board board = TestPuzzles.board("boardEasy.txt");
+            try (MoveLog log = MoveLog.attach(directory, board, 0, 8)) {
+                play(board, 30);
+                for (int i = 0; i < 5; i++) {
+                    board.undoLastMove();
+                }
+                log.sync();
+                assertTrue(Files.size(directory.resolve(MoveLog.LOG_FILE)) < MoveLog.HEADER_SIZE + 35 * MoveLog.RECORD_SIZE);
+                assertSameGame(board, MoveLog.recover(directory));
+
+                log.compact();
+                assertEquals(MoveLog.HEADER_SIZE, Files.size(directory.resolve(MoveLog.LOG_FILE)));
+                assertSameGame(board, MoveLog.recover(directory));
+            }
+
+            // Attaching a recovered board starts a new generation from its state.
+            Board recovered = MoveLog.recover(directory);
+            try (MoveLog log = MoveLog.attach(directory, recovered)) {
+                recovered.undoLastMove();
+                log.sync();
+            }
+            assertSameGame(recovered, MoveLog.recover(directory));
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    void testTornTailIsDropped() throws IOException {
+        Path directory = Files.createTempDirectory("autosave");
+        try {
+            Board board = TestPuzzles.board("boardEasy.txt");
+            Board expected;
+            try (MoveLog log = MoveLog.attach(directory, board)) {
+                play(board, 3);
+                log.sync();
+                expected = MoveLog.recover(directory);
+                play(board, 1);
+            }
+            Path wal = directory.resolve(MoveLog.LOG_FILE);
+            // A crash in the middle of the last write: half a record, then one with a bad checksum.
+            try (FileChannel channel = FileChannel.open(wal, StandardOpenOption.WRITE)) {
+                channel.truncate(channel.size() - MoveLog.RECORD_SIZE / 2);
+            }
+            assertSameGame(expected, MoveLog.recover(directory));
+            byte[] bytes = Files.readAllBytes(wal);
+            bytes[bytes.length - MoveLog.RECORD_SIZE / 2 - 1] ^= 1;
+            Files.write(wal, bytes);
+            expected.undoLastMove();
+            Board recovered = MoveLog.recover(directory);
+            assertArrayEquals(expected.toArray(), recovered.toArray());
+            assertEquals(2, recovered.getUndoJournal().size());
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    void testLogOlderThanTheSnapshotIsIgnored() throws IOException {
+        Path directory = Files.createTempDirectory("autosave");
+        try {
+            Board board = TestPuzzles.board("boardEasy.txt");
+            Path wal = directory.resolve(MoveLog.LOG_FILE);
+            try (MoveLog log = MoveLog.attach(directory, board)) {
+                play(board, 6);
+                log.sync();
+                byte[] beforeCompaction = Files.readAllBytes(wal);
+                log.compact();
+                // A crash after the new snapshot was renamed into place but before the log was emptied.
+                Files.write(wal, beforeCompaction);
+            }
+            assertSameGame(board, MoveLog.recover(directory));
+        } finally {
+            delete(directory);
+        }
+    }
+}
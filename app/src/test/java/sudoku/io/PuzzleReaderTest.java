@@ -0,0 +1,84 @@
+package sudoku.io;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import sudoku.Board;
+
+
+public class PuzzleReaderTest {
+    private static final String EASY_LINE =
+        "097000520302010800060427100000030040704500600019700308900001400800340270070256980";
+
+    static PuzzleReader reader(String text, int bufferSize) {
+        return new PuzzleReader(new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)), bufferSize);
+    }
+
+    @Test
+    void testReadsGridFilesLikeLoadBoard() throws IOException {
+        for (String name : new String[] {"boardEasy.txt", "boardMedium.txt", "boardHard.txt", "boardExtreme.txt"}) {
+            Path path = Path.of("../puzzles", name);
+            int[] expected = Board.loadBoard(new FileInputStream(path.toFile()), true).toArray();
+            try (PuzzleReader reader = PuzzleReader.open(path)) {
+                assertTrue(reader.hasNext(), "Should find a grid in " + name);
+                assertArrayEquals(expected, reader.next());
+                assertFalse(reader.hasNext(), "Only one grid per file");
+            }
+        }
+    }
+
+    @Test
+    void testReadsLineFormatWithDots() {
+        String dotted = EASY_LINE.replace('0', '.');
+        List<int[]> puzzles = reader(EASY_LINE + "\n# comment\n" + dotted + "\r\n", 7).stream().collect(Collectors.toList());
+        assertEquals(2, puzzles.size());
+        assertArrayEquals(puzzles.get(0), puzzles.get(1));
+        assertEquals(9, puzzles.get(0)[1]);
+        assertEquals(0, puzzles.get(0)[0]);
+    }
+
+    @Test
+    void testMixedFormatsAndCount() throws IOException {
+        String grid = new String(Files.readAllBytes(Path.of("../puzzles/boardEasy.txt")), StandardCharsets.US_ASCII);
+        PuzzleReader reader = reader(grid + EASY_LINE + "\n" + grid, 16);
+        List<Board> boards = reader.boards().collect(Collectors.toList());
+        assertEquals(3, boards.size());
+        assertEquals(3, reader.getPuzzleCount());
+        assertEquals(boards.get(0).toString(), boards.get(1).toString());
+    }
+
+    @Test
+    void testTruncatedPuzzle() {
+        PuzzleReader reader = reader(EASY_LINE.substring(0, 80), 64);
+        assertThrows(IllegalArgumentException.class, reader::hasNext);
+    }
+
+    @Test
+    void testTooManyCellsOnLine() {
+        PuzzleReader reader = reader(EASY_LINE + "5\n", 64);
+        assertThrows(IllegalArgumentException.class, reader::hasNext);
+    }
+
+    @Test
+    void testUnexpectedCharacter() {
+        PuzzleReader reader = reader("x" + EASY_LINE, 64);
+        assertThrows(IllegalArgumentException.class, reader::hasNext);
+    }
+
+    @Test
+    void testBoardsRejectDuplicates() {
+        String duplicate = "55" + EASY_LINE.substring(2);
+        assertThrows(IllegalArgumentException.class, () -> reader(duplicate, 64).boards().count());
+    }
+
+    @Test
+    void testEmptyInput() {
+        assertFalse(reader("\n\n# nothing here\n", 4).hasNext());
+    }
+}
@@ -0,0 +1,74 @@
+package sudoku.io;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import sudoku.Board;
+import sudoku.generator.PuzzleGenerator;
+
+
+public class PuzzleStoreTest {
+
+    @Test
+    void testCodecRoundTrip() throws IOException {
+        int[] cells = Board.loadBoard(new FileInputStream("../puzzles/easySolution.txt"), true).toArray();
+        byte[] bytes = BoardCodec.encode(cells);
+        assertEquals(41, bytes.length);
+        assertArrayEquals(cells, BoardCodec.decode(bytes));
+    }
+
+    @Test
+    void testCodecRejectsBadValues() {
+        int[] cells = new int[81];
+        cells[3] = 12;
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.encode(cells));
+        byte[] corrupt = new byte[41];
+        corrupt[0] = (byte) 0xF0;
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decode(corrupt));
+    }
+
+    @Test
+    void testStoreRandomAccess() throws IOException {
+        PuzzleGenerator generator = new PuzzleGenerator();
+        List<int[]> puzzles = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            puzzles.add(generator.generate(i).getPuzzle());
+        }
+        Path file = Files.createTempFile("puzzles", ".sdk");
+        // Mapped files cannot be deleted on every platform while the mapping is alive.
+        file.toFile().deleteOnExit();
+        assertEquals(50, PuzzleStore.write(file, puzzles.iterator()));
+        assertEquals(16 + 50 * 41, Files.size(file));
+        try (PuzzleStore store = PuzzleStore.open(file)) {
+            assertEquals(50, store.size());
+            int[] cells = new int[81];
+            for (int i = 49; i >= 0; i--) {
+                store.get(i, cells);
+                assertArrayEquals(puzzles.get(i), cells);
+            }
+            assertThrows(IndexOutOfBoundsException.class, () -> store.get(50));
+        }
+    }
+
+    @Test
+    void testOpenRejectsOtherFiles() throws IOException {
+        Path file = Files.createTempFile("puzzles", ".txt");
+        try {
+            Files.write(file, "0 0 3 0 2 0 6 0 0\n".getBytes());
+            assertThrows(IOException.class, () -> PuzzleStore.open(file).close());
+            // Corrupt headers: a negative record count, and one so large its byte size overflows.
+            for (long count : new long[] {-1, Long.MAX_VALUE / 2}) {
+                ByteBuffer header = ByteBuffer.allocate(16 + 41).putInt(PuzzleStore.MAGIC).putInt(41).putLong(count);
+                Files.write(file, header.array());
+                assertThrows(IOException.class, () -> PuzzleStore.open(file).close());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package sudoku.metrics;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import sudoku.Board;
+import sudoku.hint.HintEngine;
+
+
+public class JfrReportTest {
+
+    @Test
+    void testQuantiles() {
+        JfrReport report = new JfrReport();
+        for (int i = 1000; i >= 1; i--) {
+            report.add("sudoku.SetCell", i * 1000L);
+        }
+        report.add("sudoku.Hint", 5);
+        assertEquals(1000, report.getCount("sudoku.SetCell"));
+        assertEquals(500_000, report.quantileNanos("sudoku.SetCell", 0.5));
+        assertEquals(990_000, report.quantileNanos("sudoku.SetCell", 0.99));
+        assertEquals(999_000, report.quantileNanos("sudoku.SetCell", 0.999));
+        assertEquals(1_000_000, report.quantileNanos("sudoku.SetCell", 1.0));
+        assertEquals(5, report.quantileNanos("sudoku.Hint", 0.999));
+        assertEquals(0, report.quantileNanos("sudoku.Save", 0.5));
+    }
+
+    @Test
+    void testReadsEventsFromARecording() throws IOException {
+        Path file = Files.createTempFile("sudoku", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(SudokuEvents.SetCell.class).withThreshold(Duration.ZERO);
+            recording.enable(SudokuEvents.Load.class).withThreshold(Duration.ZERO);
+            recording.enable(SudokuEvents.Hint.class).withThreshold(Duration.ZERO);
+            recording.start();
+            Board board = Board.loadBoard(new FileInputStream("../puzzles/boardEasy.txt"), true);
+            board.setCell(0, 0, 1, false);
+            board.setCell(0, 0, 9, false); // Rejected: 9 is already in the row.
+            board.setCell(0, 0, 0, false); // A clear.
+            board.getCellsForHints();
+            new HintEngine().nextHint(board);
+            recording.stop();
+            recording.dump(file);
+
+            JfrReport report = JfrReport.read(file);
+            assertEquals(1, report.getCount("sudoku.Load"));
+            assertEquals(3, report.getCount("sudoku.SetCell"), "Cells placed while loading are not events");
+            // One event per move, carrying that move's own verdict.
+            List<RecordedEvent> moves = new ArrayList<>();
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                if (event.getEventType().getName().equals("sudoku.SetCell")) {
+                    moves.add(event);
+                }
+            }
+            moves.sort(Comparator.comparing(RecordedEvent::getStartTime));
+            List<Boolean> accepted = new ArrayList<>();
+            for (RecordedEvent move : moves) {
+                accepted.add(move.getBoolean("accepted"));
+            }
+            assertEquals(List.of(true, false, true), accepted);
+            assertEquals(2, report.getCount("sudoku.Hint"));
+            assertEquals(0, report.getCount("jdk.ThreadSleep"));
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            report.print(new PrintStream(out, true));
+            String text = out.toString(StandardCharsets.UTF_8);
+            assertTrue(text.contains("p999 ms"));
+            assertTrue(text.contains("sudoku.SetCell"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
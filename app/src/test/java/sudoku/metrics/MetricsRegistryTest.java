@@ -0,0 +1,87 @@
+package sudoku.metrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.FileInputStream;
+import java.io.IOException;
+import sudoku.Board;
+import sudoku.hint.HintEngine;
+import sudoku.solver.BitmaskSolver;
+
+
+public class MetricsRegistryTest {
+
+    @AfterEach
+    void tearDown() {
+        Metrics.install(null);
+    }
+
+    @Test
+    void testOffByDefault() {
+        assertFalse(Metrics.isEnabled());
+        assertEquals(0, Metrics.startTimer(), "No clock read while instrumentation is off");
+    }
+
+    @Test
+    void testBoardEventsAreCounted() throws IOException {
+        MetricsRegistry registry = new MetricsRegistry();
+        Metrics.install(registry);
+        Board board = Board.loadBoard(new FileInputStream("../puzzles/boardEasy.txt"), true);
+        board.setCell(0, 0, 1, false);
+        board.setCell(0, 4, 9, false); // 9 is already in row 0
+        board.undoLastMove();
+        board.redoLastMove();
+        board.setCell(0, 0, 0, false); // A clear is a move too
+        board.setCell(0, 0, 10, false); // Out of range
+        new HintEngine().nextHint(board);
+        new BitmaskSolver().solve(board.toArray());
+
+        assertEquals(1, registry.getCount(Counter.BOARDS_LOADED));
+        assertEquals(2, registry.getCount(Counter.MOVES_ACCEPTED));
+        assertEquals(2, registry.getCount(Counter.MOVES_REJECTED));
+        assertEquals(1, registry.getCount(Counter.UNDOS));
+        assertEquals(1, registry.getCount(Counter.REDOS));
+        assertEquals(1, registry.getHistogram(Timer.LOAD).getCount());
+        assertEquals(1, registry.getHistogram(Timer.HINT).getCount());
+        assertEquals(1, registry.getHistogram(Timer.SOLVE).getCount());
+    }
+
+    @Test
+    void testHistogramQuantiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 990; i++) {
+            histogram.record(1000);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(1_000_000);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1024, histogram.quantileNanos(0.5), "Upper bound of the (512, 1024] bucket");
+        assertEquals(1024, histogram.quantileNanos(0.99));
+        assertEquals(1_000_000, histogram.quantileNanos(0.999), "Capped at the largest value");
+        assertEquals(0, new LatencyHistogram().quantileNanos(0.5));
+
+        assertEquals(0, LatencyHistogram.bucket(1));
+        assertEquals(10, LatencyHistogram.bucket(1024));
+        assertEquals(11, LatencyHistogram.bucket(1025));
+    }
+
+    @Test
+    void testDumpFormats() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.add(Counter.MOVES_ACCEPTED, 3);
+        registry.record(Timer.SOLVE, 2_000);
+        registry.record(Timer.SOLVE, 50_000);
+
+        String json = registry.toJson();
+        assertTrue(json.startsWith("{\"counters\":{\"sudoku_moves_accepted_total\":3,"), json);
+        assertTrue(json.contains("\"sudoku_solve_seconds\":{\"count\":2,\"sum_us\":52.0,\"max_us\":50.0,"), json);
+        assertFalse(json.contains("\n"));
+
+        String text = registry.toPrometheus();
+        assertTrue(text.contains("# TYPE sudoku_moves_accepted_total counter\nsudoku_moves_accepted_total 3\n"), text);
+        assertTrue(text.contains("sudoku_solve_seconds_bucket{le=\"2.048E-6\"} 1\n"), text);
+        assertTrue(text.contains("sudoku_solve_seconds_bucket{le=\"6.5536E-5\"} 2\n"), text);
+        assertTrue(text.contains("sudoku_solve_seconds_bucket{le=\"+Inf\"} 2\nsudoku_solve_seconds_sum 5.2E-5\nsudoku_solve_seconds_count 2\n"), text);
+    }
+}
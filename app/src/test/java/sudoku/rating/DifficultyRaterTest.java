@@ -0,0 +1,71 @@
+package sudoku.rating;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import sudoku.generator.PuzzleGenerator;
+import sudoku.hint.Technique;
+import sudoku.TestPuzzles;
+
+
+public class DifficultyRaterTest {
+    private final DifficultyRater rater = new DifficultyRater();
+
+    @Test
+    void testBandFollowsTheHardestTechnique() throws IOException {
+        // The easy, medium and hard files only differ in how many naked singles they take;
+        // boardHard.txt has 51 empty cells, but step count alone never raises the band.
+        for (String name : new String[] {"boardEasy.txt", "boardMedium.txt", "boardHard.txt"}) {
+            Rating rating = rater.rate(TestPuzzles.board(name));
+            assertEquals(Technique.NAKED_SINGLE, rating.getHardestTechnique(), name);
+            assertEquals(Difficulty.EASY, rating.getDifficulty(), name);
+        }
+        assertEquals(Difficulty.EXTREME, rater.rate(TestPuzzles.board("boardExtreme.txt")).getDifficulty());
+
+        PuzzleGenerator generator = new PuzzleGenerator();
+        Rating medium = rater.rate(generator.generate(42L, Difficulty.MEDIUM).getPuzzle());
+        assertEquals(Technique.HIDDEN_SINGLE, medium.getHardestTechnique());
+        Rating hard = rater.rate(generator.generate(42L, Difficulty.HARD).getPuzzle());
+        assertTrue(hard.getHardestTechnique().compareTo(Technique.HIDDEN_SINGLE) > 0);
+        assertTrue(hard.getHardestTechnique().compareTo(Technique.X_WING) < 0);
+        assertTrue(hard.isSolvedLogically());
+    }
+
+    @Test
+    void testScoresIncreaseWithDifficulty() throws IOException {
+        int easy = rater.rate(TestPuzzles.board("boardEasy.txt")).getScore();
+        int medium = rater.rate(TestPuzzles.board("boardMedium.txt")).getScore();
+        int hard = rater.rate(TestPuzzles.board("boardHard.txt")).getScore();
+        int extreme = rater.rate(TestPuzzles.board("boardExtreme.txt")).getScore();
+        assertTrue(easy < medium && medium < hard && hard < extreme);
+    }
+
+    @Test
+    void testRatingDetails() throws IOException {
+        Rating easy = rater.rate(TestPuzzles.board("boardEasy.txt"));
+        assertTrue(easy.isSolvedLogically());
+        assertEquals(Technique.NAKED_SINGLE, easy.getHardestTechnique());
+        assertEquals(43, easy.getCount(Technique.NAKED_SINGLE), "One step per empty cell");
+
+        Rating extreme = rater.rate(TestPuzzles.board("boardExtreme.txt"));
+        assertFalse(extreme.isSolvedLogically());
+        assertTrue(extreme.getSearchNodes() > 0);
+    }
+
+    @Test
+    void testSolvedBoard() throws IOException {
+        Rating solved = rater.rate(TestPuzzles.board("easySolution.txt"));
+        assertEquals(0, solved.getScore());
+        assertNull(solved.getHardestTechnique());
+        assertEquals(Difficulty.EASY, solved.getDifficulty());
+    }
+
+    @Test
+    void testUnsolvablePuzzle() {
+        int[] cells = new int[81];
+        for (int col = 0; col < 8; col++) {
+            cells[col] = col + 1;
+        }
+        cells[9 * 4 + 8] = 9;
+        assertThrows(IllegalArgumentException.class, () -> rater.rate(cells));
+    }
+}
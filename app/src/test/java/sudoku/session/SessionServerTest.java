@@ -0,0 +1,144 @@
+package sudoku.session;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import sudoku.Board;
+
+
+public class SessionServerTest {
+
+    static String puzzle(String name) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int value : Board.loadBoard(new FileInputStream("../puzzles/" + name), true).toArray()) {
+            sb.append(value);
+        }
+        return sb.toString();
+    }
+
+    static String[] run(String script) throws IOException {
+        SessionServer server = new SessionServer(new SessionManager());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        server.serve(new ByteArrayInputStream(script.getBytes(StandardCharsets.UTF_8)), out);
+        return out.toString(StandardCharsets.UTF_8).split("\n");
+    }
+
+    @Test
+    void testScriptedGame() throws IOException {
+        // boardEasy.txt starts "0 9 7 ...": (0, 0) is empty and 9 is already in row 0.
+        String[] replies = run("NEW " + puzzle("boardEasy.txt") + "\n"
+                + "SET 1 0 0 9\n"
+                + "SET 1 0 0 1\n"
+                + "SET 1 0 1 4\n"
+                + "UNDO 1\n"
+                + "REDO 1\n"
+                + "REDO 1\n"
+                + "HINT 1\n"
+                + "CLOSE 1\n"
+                + "SHOW 1\n"
+                + "QUIT\n"
+                + "SHOW 1\n");
+        assertEquals(10, replies.length, "Nothing after QUIT is handled");
+        assertEquals("OK 1", replies[0]);
+        assertEquals("MISTAKE 0 1", replies[1]);
+        assertEquals("OK 50 1", replies[2]);
+        assertTrue(replies[3].startsWith("ERR"), "Givens cannot be overwritten");
+        assertEquals("OK 0 0 0", replies[4]);
+        assertEquals("OK 0 0 1", replies[5]);
+        assertEquals("ERR Nothing to redo.", replies[6]);
+        assertTrue(replies[7].startsWith("OK PLACE "), replies[7]);
+        assertEquals("OK", replies[8]);
+        assertEquals("ERR No session 1.", replies[9]);
+    }
+
+    @Test
+    void testMalformedCommands() throws IOException {
+        String[] replies = run("FOO\nSET 1 0 0\nSET x 0 0 1\nNEW 123\nGEN 1 IMPOSSIBLE\n");
+        assertEquals(5, replies.length);
+        for (String reply : replies) {
+            assertTrue(reply.startsWith("ERR "), reply);
+        }
+    }
+
+    @Test
+    void testClearAndOutOfRangeValues() throws IOException {
+        String[] replies = run("NEW " + puzzle("boardEasy.txt") + "\n"
+                + "SET 1 0 0 1\n"
+                + "SET 1 0 0 0\n"
+                + "SET 1 0 0 10\n"
+                + "SET 1 0 0 -1\n"
+                + "SHOW 1\n"
+                + "UNDO 1\n");
+        assertEquals("OK 50 0", replies[1]);
+        assertEquals("OK 50 0", replies[2], "Clearing is neither scored nor a mistake");
+        assertTrue(replies[3].startsWith("ERR "), replies[3]);
+        assertTrue(replies[4].startsWith("ERR "), replies[4]);
+        assertTrue(replies[5].startsWith("OK 0"), "The cell is empty again");
+        assertEquals("OK 0 0 1", replies[6], "Undoing the clear brings the value back");
+    }
+
+    @Test
+    void testFailedWriteStopsReading() throws IOException {
+        StringBuilder script = new StringBuilder("NEW " + puzzle("boardEasy.txt") + "\n");
+        for (int i = 0; i < 100_000; i++) {
+            script.append("SHOW 1\n");
+        }
+        ByteArrayInputStream in = new ByteArrayInputStream(script.toString().getBytes(StandardCharsets.UTF_8));
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Client went away");
+            }
+        };
+        assertThrows(IOException.class, () -> new SessionServer(new SessionManager()).serve(in, broken));
+        assertTrue(in.available() > script.length() / 2, "Commands after the failed write should not be read");
+    }
+
+    @Test
+    void testGenerateAndShow() throws IOException {
+        String[] replies = run("GEN 42 EASY\nSHOW 1\n");
+        assertEquals("OK 1", replies[0]);
+        assertTrue(replies[1].matches("OK [0-9]{81} 0 0"), replies[1]);
+    }
+
+    @Test
+    void testManySessionsPlayConcurrently() throws Exception {
+        String solution = puzzle("easySolution.txt");
+        int[] givens = CommandProtocol.parsePuzzle(puzzle("boardEasy.txt"));
+        SessionManager sessions = new SessionManager();
+        CommandProtocol protocol = new CommandProtocol(sessions);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            ids.add(sessions.create(givens));
+        }
+        // Several threads fire the whole solution at every session at once; each
+        // session must still see its moves applied one at a time.
+        ExecutorService clients = Executors.newFixedThreadPool(4);
+        List<CompletableFuture<String>> replies = new ArrayList<>();
+        for (long id : ids) {
+            for (int cell = 0; cell < 81; cell++) {
+                if (givens[cell] == 0) {
+                    String command = "SET " + id + " " + cell / 9 + " " + cell % 9 + " " + solution.charAt(cell);
+                    replies.add(CompletableFuture.supplyAsync(() -> protocol.handle(command), clients).thenCompose(f -> f));
+                }
+            }
+        }
+        for (CompletableFuture<String> reply : replies) {
+            assertFalse(reply.get().startsWith("ERR"));
+        }
+        clients.shutdown();
+        int empty = 81 - (int) java.util.Arrays.stream(givens).filter(v -> v != 0).count();
+        for (long id : ids) {
+            assertEquals("OK " + solution + " " + 50 * empty + " 0", protocol.handle("SHOW " + id).get());
+        }
+    }
+}
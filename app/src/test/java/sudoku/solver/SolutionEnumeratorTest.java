@@ -0,0 +1,95 @@
+package sudoku.solver;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import sudoku.Board;
+import sudoku.TestPuzzles;
+
+
+public class SolutionEnumeratorTest {
+    private final SolutionEnumerator enumerator = new SolutionEnumerator();
+
+    // The hard puzzle with its first few givens removed, so it has several solutions.
+    static int[] loosened(int removed) throws IOException {
+        int[] cells = TestPuzzles.cells("boardHard.txt");
+        for (int i = 0; i < cells.length && removed > 0; i++) {
+            if (cells[i] != 0) {
+                cells[i] = 0;
+                removed--;
+            }
+        }
+        return cells;
+    }
+
+    @Test
+    void testProperPuzzlesAreUnique() throws IOException {
+        for (String name : new String[] {"boardEasy.txt", "boardHard.txt", "boardExtreme.txt"}) {
+            assertTrue(enumerator.isUnique(TestPuzzles.cells(name)), name);
+            assertEquals(1, enumerator.countSolutions(TestPuzzles.board(name), 10));
+        }
+    }
+
+    @Test
+    void testCountsMatchSequentialSearch() throws IOException {
+        BitmaskSolver solver = new BitmaskSolver();
+        for (int removed = 4; removed <= 8; removed += 2) {
+            int[] cells = loosened(removed);
+            long expected = solver.countSolutions(cells, 1_000_000);
+            assertEquals(expected, enumerator.countSolutions(cells, 1_000_000));
+            assertEquals(Math.min(expected, 3), enumerator.countSolutions(cells, 3));
+        }
+    }
+
+    @Test
+    void testLimitCutsOffLargeTrees() {
+        assertEquals(5000, enumerator.countSolutions(new int[81], 5000));
+        assertEquals(288, enumerator.countSolutions(new int[16], 1000), "There are 288 4x4 grids");
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            assertEquals(100, new SolutionEnumerator(pool).countSolutions(new int[81], 100));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testEnumerateSolutions() throws IOException {
+        int[] cells = loosened(6);
+        List<int[]> parallel = enumerator.enumerateSolutions(cells).collect(Collectors.toList());
+        Set<String> distinct = parallel.stream().map(Arrays::toString).collect(Collectors.toSet());
+        assertEquals(parallel.size(), distinct.size(), "No solution twice");
+        assertEquals(enumerator.countSolutions(cells, 1_000_000), parallel.size());
+        for (int[] solution : parallel) {
+            assertTrue(Board.verifySolution(cells, solution));
+        }
+        Set<String> sequential = enumerator.enumerateSolutions(cells).sequential()
+                .map(Arrays::toString).collect(Collectors.toSet());
+        assertEquals(distinct, sequential);
+
+        assertEquals(288, enumerator.enumerateSolutions(new int[16]).count());
+        assertEquals(50, enumerator.enumerateSolutions(new int[81]).limit(50).count(), "limit stops an endless search");
+        assertArrayEquals(TestPuzzles.cells("easySolution.txt"), enumerator.enumerateSolutions(TestPuzzles.cells("boardEasy.txt")).findAny().get());
+    }
+
+    @Test
+    void testNoSolutions() {
+        int[] clash = new int[81];
+        clash[0] = 3;
+        clash[1] = 3;
+        assertEquals(0, enumerator.countSolutions(clash, 10));
+        assertEquals(0, enumerator.enumerateSolutions(clash).count());
+
+        int[] stuck = new int[81];
+        for (int col = 0; col < 8; col++) {
+            stuck[col] = col + 1;
+        }
+        stuck[9 * 4 + 8] = 9;
+        assertEquals(0, enumerator.countSolutions(stuck, 10));
+        assertThrows(IllegalArgumentException.class, () -> enumerator.countSolutions(stuck, 0));
+    }
+}
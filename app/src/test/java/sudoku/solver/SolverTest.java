@@ -0,0 +1,122 @@
+package sudoku.solver;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import sudoku.Board;
+import sudoku.BoardTest;
+import sudoku.TestPuzzles;
+
+
+public class SolverTest {
+    private final Solver[] solvers = { new BitmaskSolver(), new DancingLinksSolver() };
+
+    static boolean isCompleteAndValid(int[] grid) {
+        for (int i = 0; i < 9; i++) {
+            int row = 0, col = 0, box = 0;
+            for (int j = 0; j < 9; j++) {
+                row |= 1 << grid[i * 9 + j];
+                col |= 1 << grid[j * 9 + i];
+                box |= 1 << grid[(i / 3 * 3 + j / 3) * 9 + i % 3 * 3 + j % 3];
+            }
+            if (row != 0x3FE || col != 0x3FE || box != 0x3FE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Test
+    void testSolvesEasyBoard() throws IOException {
+        int[] expected = TestPuzzles.cells("easySolution.txt");
+        for (Solver solver : solvers) {
+            SolveResult result = solver.solve(TestPuzzles.cells("boardEasy.txt"));
+            assertTrue(result.isSolved(), solver + " should solve the easy board");
+            assertArrayEquals(expected, result.getSolution());
+        }
+    }
+
+    @Test
+    void testSolutionKeepsGivens() throws IOException {
+        for (String name : new String[] {"boardMedium.txt", "boardHard.txt", "boardExtreme.txt"}) {
+            int[] puzzle = TestPuzzles.cells(name);
+            for (Solver solver : solvers) {
+                SolveResult result = solver.solve(puzzle);
+                assertTrue(result.isSolved(), "Should solve " + name);
+                assertTrue(isCompleteAndValid(result.getSolution()), "Solution should be a valid grid");
+                for (int i = 0; i < 81; i++) {
+                    if (puzzle[i] != 0) {
+                        assertEquals(puzzle[i], result.getSolution()[i], "Givens must not change");
+                    }
+                }
+                assertTrue(result.getNodes() > 0, "Should report visited nodes");
+            }
+        }
+    }
+
+    @Test
+    void testSolveFromBoard() {
+        Board board = new Board();
+        board.setCell(0, 0, 5, false);
+        for (Solver solver : solvers) {
+            SolveResult result = solver.solve(board);
+            assertTrue(result.isSolved(), "An almost empty board has solutions");
+            assertEquals(5, result.getSolution()[0]);
+        }
+        assertEquals(5, board.getCell(0, 0), "Solving must not modify the board");
+        assertEquals(0, board.getCell(0, 1), "Solving must not modify the board");
+    }
+
+    @Test
+    void testUnsolvableGrid() {
+        int[] cells = new int[81];
+        // Row 0 takes 1-8, and column 8 already holds a 9, so cell (0, 8) has no candidate.
+        for (int col = 0; col < 8; col++) {
+            cells[col] = col + 1;
+        }
+        cells[9 * 4 + 8] = 9;
+        for (Solver solver : solvers) {
+            assertFalse(solver.solve(cells).isSolved(), "Grid should have no solution");
+        }
+    }
+
+    @Test
+    void testConflictingGivens() {
+        int[] cells = new int[81];
+        cells[0] = 3;
+        cells[1] = 3;
+        for (Solver solver : solvers) {
+            assertFalse(solver.solve(cells).isSolved(), "Duplicate givens cannot be solved");
+        }
+    }
+
+    @Test
+    void testRejectsMalformedGrid() {
+        for (Solver solver : solvers) {
+            assertThrows(IllegalArgumentException.class, () -> solver.solve(new int[80]));
+        }
+    }
+
+    @Test
+    void testSolvesOtherSizes() {
+        for (int boxSize = 2; boxSize <= 4; boxSize++) {
+            int[] solution = BoardTest.patternSolution(boxSize);
+            int[] puzzle = solution.clone();
+            for (int i = 0; i < puzzle.length; i += 3) {
+                puzzle[i] = 0;
+            }
+            for (Solver solver : solvers) {
+                SolveResult result = solver.solve(puzzle);
+                assertTrue(result.isSolved(), solver + " should solve a " + boxSize * boxSize + "x" + boxSize * boxSize + " grid");
+                assertTrue(Board.verifySolution(puzzle, result.getSolution()));
+            }
+        }
+        assertEquals(1, new BitmaskSolver().countSolutions(new int[] {
+            1, 2, 3, 4,
+            3, 4, 1, 2,
+            2, 1, 4, 3,
+            4, 3, 0, 0}, 2));
+        assertThrows(IllegalArgumentException.class, () -> new BitmaskSolver().solve(new int[16 - 1]));
+        assertThrows(IllegalArgumentException.class, () -> new BitmaskSolver().solve(new int[] {
+            5, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0}));
+    }
+}
@@ -0,0 +1,146 @@
+package sudoku.batch;
+
+import java.util.Arrays;
+import sudoku.Geometry;
+
+// Checks many 9x9 boards at once, for verifying large numbers of submitted solutions.
+//
+// Boards are stored structure-of-arrays: cell c of board b sits at cells[c * stride + b],
+// so a unit check walks its 9 cells once for a whole run of boards, and the values of
+// one cell across consecutive boards can be loaded as a single vector. With the
+// jdk.incubator.vector module (--add-modules jdk.incubator.vector) VectorKernel checks
+// a full vector of boards per instruction, about ten times the throughput of checking
+// boards one by one. Without it a scalar loop checks one board at a time, at about the
+// speed of Board.verifySolution: C2 does not vectorize the per-lane shifts on its own.
+//
+// Fill a batch with add(), check it with validate() or verifySolutions(), then clear()
+// and reuse it; a batch is not thread-safe, use one per thread.
+public final class BatchValidator {
+    static final int CELLS = 81;
+    static final int ALL_VALUES = 0x1FF;
+    // Capacity is always rounded up to a multiple of this many boards.
+    static final int ALIGNMENT = 64;
+    // Cell indices of the 27 units: rows, then columns, then boxes.
+    static final int[][] UNITS = Geometry.STANDARD.units();
+
+    private static final boolean VECTORIZED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && !Boolean.getBoolean("sudoku.scalarValidator");
+    // Capacity is rounded up to a multiple of this, which the vector length divides (both
+    // are powers of two), so vector loops never need a tail. Vectors can be wider than
+    // ALIGNMENT boards: 2048-bit SVE has 128 short lanes.
+    static final int STRIDE_ALIGNMENT = VECTORIZED ? Math.max(ALIGNMENT, VectorKernel.lanes()) : ALIGNMENT;
+
+    private final int stride;
+    private final short[] cells;
+    private final boolean[] outOfRange;
+    private int count;
+
+    public BatchValidator(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Batch capacity must be positive.");
+        }
+        stride = (capacity + STRIDE_ALIGNMENT - 1) / STRIDE_ALIGNMENT * STRIDE_ALIGNMENT;
+        cells = new short[CELLS * stride];
+        outOfRange = new boolean[stride];
+    }
+
+    // True when the Vector API is in use rather than the scalar fallback.
+    public static boolean isVectorized() {
+        return VECTORIZED;
+    }
+
+    // Adds a board of 81 row-major cells (0 for empty) and returns its index in the batch.
+    // A value outside 0-9 is stored as empty and makes the board fail both checks.
+    public int add(int[] board) {
+        if (board.length != CELLS) {
+            throw new IllegalArgumentException("Expected 81 cells, got " + board.length + ".");
+        }
+        if (count == stride) {
+            throw new IllegalStateException("Batch is full.");
+        }
+        int index = count++;
+        boolean bad = false;
+        for (int cell = 0; cell < CELLS; cell++) {
+            int value = board[cell];
+            if (value < 0 || value > 9) {
+                bad = true;
+                value = 0;
+            }
+            cells[cell * stride + index] = (short) value;
+        }
+        outOfRange[index] = bad;
+        return index;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int capacity() {
+        return stride;
+    }
+
+    public boolean isFull() {
+        return count == stride;
+    }
+
+    // Empties the batch, keeping its storage.
+    public void clear() {
+        Arrays.fill(cells, (short) 0);
+        Arrays.fill(outOfRange, false);
+        count = 0;
+    }
+
+    // Per board: no value repeats in a row, column or box, as Board.isValidBoard checks.
+    public boolean[] validate() {
+        return check(false);
+    }
+
+    // Per board: every row, column and box holds 1-9, as Board.verifySolution checks.
+    public boolean[] verifySolutions() {
+        return check(true);
+    }
+
+    private boolean[] check(boolean complete) {
+        boolean[] results = new boolean[count];
+        if (VECTORIZED) {
+            VectorKernel.check(cells, stride, count, complete, results);
+        } else {
+            checkScalar(cells, stride, count, complete, results);
+        }
+        for (int i = 0; i < count; i++) {
+            results[i] &= !outOfRange[i];
+        }
+        return results;
+    }
+
+    // The fallback: one board at a time, a single pass over its cells with the 27 unit masks
+    // in an array, like Board.verifySolution. Value v sets bit v - 1 and an empty cell sets
+    // nothing: (1 << v) >>> 1. A unit holds a duplicate when a bit is set twice, and is
+    // complete when all 9 bits end up set.
+    static void checkScalar(short[] cells, int stride, int count, boolean complete, boolean[] results) {
+        int[] units = new int[27];
+        for (int b = 0; b < count; b++) {
+            Arrays.fill(units, 0);
+            int repeated = 0;
+            for (int row = 0, cell = 0; row < 9; row++) {
+                int boxBase = 18 + row / 3 * 3;
+                for (int col = 0; col < 9; col++, cell++) {
+                    int bit = (1 << cells[cell * stride + b]) >>> 1;
+                    int box = boxBase + col / 3;
+                    repeated |= (units[row] | units[9 + col] | units[box]) & bit;
+                    units[row] |= bit;
+                    units[9 + col] |= bit;
+                    units[box] |= bit;
+                }
+            }
+            boolean ok = repeated == 0;
+            if (complete) {
+                for (int unit : units) {
+                    ok &= unit == ALL_VALUES;
+                }
+            }
+            results[b] = ok;
+        }
+    }
+}
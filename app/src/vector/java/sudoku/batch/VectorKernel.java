@@ -0,0 +1,47 @@
+package sudoku.batch;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// BatchValidator's checks with one board per short lane, using jdk.incubator.vector.
+// Only loaded when that module is present, so nothing else may refer to this class.
+final class VectorKernel {
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+
+    private VectorKernel() {
+    }
+
+    // Boards checked per vector: 8 with AVX, 32 with AVX-512, up to 128 with 2048-bit SVE.
+    static int lanes() {
+        return SPECIES.length();
+    }
+
+    // Same contract as BatchValidator.checkScalar; stride must be a multiple of the lane count.
+    static void check(short[] cells, int stride, int count, boolean complete, boolean[] results) {
+        int lanes = SPECIES.length();
+        ShortVector one = ShortVector.broadcast(SPECIES, (short) 1);
+        for (int base = 0; base < count; base += lanes) {
+            VectorMask<Short> ok = SPECIES.maskAll(true);
+            for (int[] unit : BatchValidator.UNITS) {
+                ShortVector seen = ShortVector.zero(SPECIES);
+                ShortVector repeated = ShortVector.zero(SPECIES);
+                for (int cell : unit) {
+                    ShortVector values = ShortVector.fromArray(SPECIES, cells, cell * stride + base);
+                    ShortVector bit = one.lanewise(VectorOperators.LSHL, values).lanewise(VectorOperators.LSHR, 1);
+                    repeated = repeated.or(seen.and(bit));
+                    seen = seen.or(bit);
+                }
+                ok = ok.and(complete ? seen.eq((short) BatchValidator.ALL_VALUES) : repeated.eq((short) 0));
+            }
+            if (count - base >= lanes) {
+                ok.intoArray(results, base);
+            } else {
+                for (int i = 0; i < count - base; i++) {
+                    results[base + i] = ok.laneIsSet(i);
+                }
+            }
+        }
+    }
+}